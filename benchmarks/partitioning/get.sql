@@ -0,0 +1,4 @@
+\set id random(1, :rows)
+SELECT id, created, last_upd, title, description, due_date, completed, version
+FROM :table
+WHERE id = :id;
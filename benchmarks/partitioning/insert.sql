@@ -0,0 +1,3 @@
+INSERT INTO :table (id, created, last_upd, title, description, due_date, completed)
+VALUES (nextval('task_bench_seq'), now(), now(), 'Задача', 'Описание',
+        timestamp '2024-01-01' + random() * interval '2 years', false);
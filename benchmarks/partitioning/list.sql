@@ -0,0 +1,6 @@
+\set day random(0, 720)
+SELECT id, created, last_upd, title, description, due_date, completed, version
+FROM :table
+WHERE due_date >= timestamp '2024-01-01' + :day * interval '1 day'
+ORDER BY due_date, id
+LIMIT 51;
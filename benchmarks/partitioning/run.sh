@@ -0,0 +1,22 @@
+#!/bin/bash
+# Задержка вставки, чтения страницы списка и чтения по id: обычная таблица против секционированной.
+# Параметры подключения берутся из PGHOST/PGPORT/PGUSER/PGPASSWORD/PGDATABASE.
+# Пример: ROWS=100000000 PGPORT=5433 PGUSER=postgres PGPASSWORD=postgres ./run.sh
+set -euo pipefail
+cd "$(dirname "$0")"
+
+ROWS=${ROWS:-10000000}
+CLIENTS=${CLIENTS:-8}
+DURATION=${DURATION:-60}
+
+if [ "${SKIP_SETUP:-}" != "1" ]; then
+  psql -v ON_ERROR_STOP=1 -v rows="$ROWS" -f setup.sql
+fi
+
+for table in task_bench_plain task_bench_hash; do
+  for script in insert list get; do
+    latency=$(pgbench -n -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" -f "$script.sql" \
+      -D table="$table" -D rows="$ROWS" | grep -E "latency average|tps =" | tr '\n' ' ')
+    echo "$table $script: $latency"
+  done
+done
@@ -0,0 +1,49 @@
+-- Две копии таблицы задач с одинаковыми данными и индексами: обычная и секционированная по хешу id.
+-- Запуск: psql -v rows=100000000 -f setup.sql
+DROP TABLE IF EXISTS task_bench_plain;
+DROP TABLE IF EXISTS task_bench_hash;
+DROP SEQUENCE IF EXISTS task_bench_seq;
+
+CREATE TABLE task_bench_plain
+(
+    id          BIGINT       NOT NULL,
+    created     TIMESTAMP    NOT NULL,
+    last_upd    TIMESTAMP    NOT NULL,
+    title       VARCHAR(200) NOT NULL,
+    description VARCHAR(2000),
+    due_date    TIMESTAMP    NOT NULL,
+    completed   BOOLEAN      NOT NULL,
+    version     BIGINT       NOT NULL DEFAULT 0
+);
+
+CREATE TABLE task_bench_hash (LIKE task_bench_plain INCLUDING DEFAULTS) PARTITION BY HASH (id);
+
+DO
+$$
+    BEGIN
+        FOR i IN 0..15
+            LOOP
+                EXECUTE format('CREATE TABLE task_bench_hash_p%s PARTITION OF task_bench_hash FOR VALUES WITH (MODULUS 16, REMAINDER %s)', i, i);
+            END LOOP;
+    END
+$$;
+
+INSERT INTO task_bench_plain (id, created, last_upd, title, description, due_date, completed)
+SELECT g, now(), now(), 'Задача ' || g, 'Описание ' || g,
+       timestamp '2024-01-01' + random() * interval '2 years', random() < 0.8
+FROM generate_series(1, :rows) g;
+
+INSERT INTO task_bench_hash SELECT * FROM task_bench_plain;
+
+CREATE SEQUENCE task_bench_seq START WITH 1;
+SELECT setval('task_bench_seq', :rows);
+
+ALTER TABLE task_bench_plain ADD PRIMARY KEY (id);
+CREATE INDEX ON task_bench_plain (due_date, id);
+CREATE INDEX ON task_bench_plain (due_date) WHERE NOT completed;
+ALTER TABLE task_bench_hash ADD PRIMARY KEY (id);
+CREATE INDEX ON task_bench_hash (due_date, id);
+CREATE INDEX ON task_bench_hash (due_date) WHERE NOT completed;
+
+VACUUM ANALYZE task_bench_plain;
+VACUUM ANALYZE task_bench_hash;
@@ -0,0 +1,50 @@
+package ru.zyablov.task.list.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.entity.Task;
+import ru.zyablov.task.list.utils.ConverterUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразования между сущностью и объектом транспорта.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private Task task;
+    private TaskData taskData;
+
+    @Setup
+    public void setUp() {
+        var now = LocalDateTime.now();
+        task = new Task(1L, now, now, "Задача", "Описание задачи", now.plusDays(1), false, 0L);
+        taskData = new TaskData(1L, "Задача", "Описание задачи", now.plusDays(1), false, 0L, null);
+    }
+
+    @Benchmark
+    public TaskData domainToApi() {
+        return ConverterUtils.domainToApi(task);
+    }
+
+    @Benchmark
+    public Task apiToDomain() {
+        return ConverterUtils.apiToDomain(taskData);
+    }
+}
@@ -0,0 +1,126 @@
+package ru.zyablov.task.list.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import ru.zyablov.task.list.TaskListApplication;
+import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.dto.TaskFilter;
+import ru.zyablov.task.list.dto.TaskPage;
+import ru.zyablov.task.list.exception.NoSuchTaskException;
+import ru.zyablov.task.list.exception.TaskVersionMismatchException;
+import ru.zyablov.task.list.service.TaskBatchService;
+import ru.zyablov.task.list.service.TaskService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Операции TaskServiceImpl против PostgreSQL в Testcontainers (нужен Docker).
+ * Кэш отключён, чтобы измерять обращения к БД.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    private static final int SEED_SIZE = 10_000;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine").withUsername("postgres");
+        postgres.start();
+
+        var application = new SpringApplication(TaskListApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setDefaultProperties(Map.of(
+                "spring.datasource.url", postgres.getJdbcUrl() + "&reWriteBatchedInserts=true",
+                "spring.datasource.username", postgres.getUsername(),
+                "spring.datasource.password", postgres.getPassword(),
+                "task.cache.enabled", "false",
+                "logging.level.root", "WARN"));
+        context = application.run();
+        taskService = context.getBean("taskServiceImpl", TaskService.class);
+
+        var dueDate = LocalDateTime.now();
+        var seed = new ArrayList<TaskData>(SEED_SIZE);
+        for (int i = 0; i < SEED_SIZE; i++) {
+            seed.add(TaskData.builder()
+                    .title("Задача " + i)
+                    .description("Описание задачи " + i)
+                    .dueDate(dueDate.plusMinutes(i))
+                    .completed(i % 5 == 0)
+                    .build());
+        }
+        firstId = context.getBean(TaskBatchService.class).createAll(seed).get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public TaskData findById() throws NoSuchTaskException {
+        return taskService.findById(randomId());
+    }
+
+    @Benchmark
+    public TaskPage findAllFirstPage() {
+        return taskService.findAll(new TaskFilter(), null, 50);
+    }
+
+    @Benchmark
+    public List<TaskData> findAllOpenPage() {
+        return taskService.findAll(new TaskFilter(false, null, null), null, 50).getItems();
+    }
+
+    @Benchmark
+    public TaskData create() {
+        return taskService.create(TaskData.builder()
+                .title("Новая задача")
+                .description("Описание")
+                .dueDate(LocalDateTime.now().plusDays(1))
+                .build());
+    }
+
+    @Benchmark
+    public TaskData update() throws NoSuchTaskException, TaskVersionMismatchException {
+        return taskService.update(randomId(), TaskData.builder()
+                .title("Изменённая задача")
+                .description("Описание")
+                .dueDate(LocalDateTime.now().plusDays(1))
+                .completed(true)
+                .build(), null);
+    }
+
+    private long randomId() {
+        return firstId + ThreadLocalRandom.current().nextInt(SEED_SIZE);
+    }
+}
@@ -0,0 +1,75 @@
+package ru.zyablov.task.list.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.zyablov.task.list.dto.TaskData;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация и разбор списка задач в JSON и CBOR теми же настройками ObjectMapper, что собирает Spring Boot.
+ * Размер сообщения печатается при подготовке каждого набора параметров.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+    private static final TypeReference<List<TaskData>> TASK_LIST = new TypeReference<>() {
+    };
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"json", "cbor"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private List<TaskData> tasks;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        var builder = Jackson2ObjectMapperBuilder.json();
+        if ("cbor".equals(format)) {
+            builder.factory(new CBORFactory());
+        }
+        objectMapper = builder.build();
+        var dueDate = LocalDateTime.of(2024, 4, 26, 10, 0);
+        tasks = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            tasks.add(new TaskData(i, "Задача " + i, "Описание задачи " + i, dueDate.plusMinutes(i), i % 2 == 0, 0L, dueDate));
+        }
+        payload = objectMapper.writeValueAsBytes(tasks);
+        System.out.printf("%n%s, %d задач: %d байт (%.1f на задачу)%n", format, size, payload.length, (double) payload.length / size);
+    }
+
+    @Benchmark
+    public byte[] writeList() throws IOException {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public List<TaskData> readList() throws IOException {
+        return objectMapper.readValue(payload, TASK_LIST);
+    }
+}
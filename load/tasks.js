@@ -0,0 +1,49 @@
+// Нагрузочный тест k6: медленные клиенты читают список и отдельные задачи.
+// Запуск: k6 run -e BASE_URL=http://localhost:8080 -e VUS=10000 load/tasks.js
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '10000');
+
+export const options = {
+    scenarios: {
+        slow_clients: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '1m', target: VUS },
+                { duration: '3m', target: VUS },
+                { duration: '30s', target: 0 },
+            ],
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        http_req_duration: ['p(99)<2000'],
+    },
+};
+
+export function setup() {
+    const ids = [];
+    for (let i = 0; i < 100; i++) {
+        const res = http.post(`${BASE_URL}/tasks`, JSON.stringify({
+            title: `Нагрузочная задача ${i}`,
+            description: 'k6',
+            dueDate: '2030-01-01T10:00:00',
+            completed: false,
+        }), { headers: { 'Content-Type': 'application/json' } });
+        ids.push(res.json('id'));
+    }
+    return { ids };
+}
+
+export default function (data) {
+    const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+    const one = http.get(`${BASE_URL}/tasks/${id}`);
+    check(one, { 'task 200': (r) => r.status === 200 });
+    const page = http.get(`${BASE_URL}/tasks?completed=false&limit=50`);
+    check(page, { 'list 200': (r) => r.status === 200 });
+    // Клиент думает между запросами и держит соединение открытым
+    sleep(1 + Math.random() * 2);
+}
@@ -2,8 +2,10 @@ package ru.zyablov.task.list;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class TaskListApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(TaskListApplication.class, args);
@@ -2,15 +2,26 @@ package ru.zyablov.task.list.advice;
 
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.WebRequest;
+import ru.zyablov.task.list.exception.BatchTooLargeException;
+import ru.zyablov.task.list.exception.ChangesExpiredException;
+import ru.zyablov.task.list.exception.ConcurrencyLimitExceededException;
+import ru.zyablov.task.list.exception.InvalidCursorException;
+import ru.zyablov.task.list.exception.TaskArchivedException;
+import ru.zyablov.task.list.exception.UnsupportedExportFormatException;
 
 import java.util.stream.Collectors;
 
 @ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BadRequestControllerAdvice {
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ProblemDetail> handleBindException(Exception exception) {
@@ -24,4 +35,34 @@ public class BadRequestControllerAdvice {
         problemDetail.setProperty("errors", exception.getConstraintViolations().stream().map(ConstraintViolation::getMessage).collect(Collectors.toList()));
         return ResponseEntity.badRequest().body(problemDetail);
     }
+    @ExceptionHandler({InvalidCursorException.class, UnsupportedExportFormatException.class, BatchTooLargeException.class})
+    public ResponseEntity<ProblemDetail> handleBadRequestException(RuntimeException exception) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Некорректный запрос");
+        problemDetail.setProperty("message", exception.getMessage());
+        return ResponseEntity.badRequest().body(problemDetail);
+    }
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<ProblemDetail> handleConcurrencyLimitExceededException(ConcurrencyLimitExceededException exception) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(problemDetail);
+    }
+    @ExceptionHandler(ChangesExpiredException.class)
+    public ResponseEntity<ProblemDetail> handleChangesExpiredException(ChangesExpiredException exception) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.GONE, exception.getMessage());
+        return ResponseEntity.status(HttpStatus.GONE).body(problemDetail);
+    }
+    @ExceptionHandler(TaskArchivedException.class)
+    public ResponseEntity<ProblemDetail> handleTaskArchivedException(TaskArchivedException exception) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, exception.getMessage());
+        problemDetail.setProperty("reason", "archived");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(problemDetail);
+    }
+    // Задачу изменили между чтением и записью (проверка @Version при flush): 412, если клиент передал If-Match,
+    // иначе 409 - запрос можно повторить.
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ProblemDetail> handleOptimisticLockingFailureException(OptimisticLockingFailureException exception, WebRequest request) {
+        var status = request.getHeader(HttpHeaders.IF_MATCH) != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, "Задача была изменена");
+        return ResponseEntity.status(status).body(problemDetail);
+    }
 }
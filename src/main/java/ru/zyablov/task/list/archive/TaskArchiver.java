@@ -0,0 +1,72 @@
+package ru.zyablov.task.list.archive;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.zyablov.task.list.config.TaskArchiveProperties;
+import ru.zyablov.task.list.repository.TaskRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Перенос завершённых задач, не изменявшихся дольше task.archive.age, из task в task_archive.
+ * Каждая пачка переносится отдельной транзакцией через FOR UPDATE SKIP LOCKED, поэтому экземпляры
+ * приложения не мешают друг другу и запросам пользователей.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "task.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskArchiver {
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskArchiveProperties properties;
+    private final Counter archived;
+
+    public TaskArchiver(TaskRepository taskRepository,
+                        TransactionTemplate transactionTemplate,
+                        TaskArchiveProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.archived = Counter.builder("task.archive.moved")
+                .description("Количество задач, перенесённых в архив")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${task.archive.interval-ms:60000}")
+    public void archive() {
+        var before = LocalDateTime.now().minus(properties.getAge());
+        var batchSize = Math.max(properties.getBatchSize(), 1);
+        var batchesLeft = Math.max(properties.getMaxBatchesPerRun(), 1);
+        int moved;
+        do {
+            moved = archiveBatch(before, batchSize);
+            batchesLeft--;
+        } while (moved == batchSize && batchesLeft > 0);
+    }
+
+    /**
+     * Перенести в архив одну пачку задач, не изменявшихся с before.
+     *
+     * @return int количество перенесённых задач или -1 при ошибке
+     */
+    int archiveBatch(LocalDateTime before, int batchSize) {
+        try {
+            Integer moved = transactionTemplate.execute(status -> {
+                taskRepository.markArchiving();
+                return taskRepository.archiveCompleted(before, batchSize);
+            });
+            var count = moved == null ? 0 : moved;
+            archived.increment(count);
+            return count;
+        } catch (RuntimeException e) {
+            log.warn("Не удалось перенести задачи в архив, повторим при следующем проходе", e);
+            return -1;
+        }
+    }
+}
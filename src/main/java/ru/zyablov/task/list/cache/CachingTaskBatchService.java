@@ -0,0 +1,64 @@
+package ru.zyablov.task.list.cache;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import ru.zyablov.task.list.dto.TaskBatchResult;
+import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.service.TaskBatchService;
+
+import java.util.List;
+
+/**
+ * Обёртка над {@link TaskBatchService}, поддерживающая кэш задач в актуальном состоянии.
+ */
+@Primary
+@Service
+@ConditionalOnProperty(prefix = "task.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CachingTaskBatchService implements TaskBatchService {
+    private final TaskBatchService delegate;
+    private final TaskCache taskCache;
+
+    public CachingTaskBatchService(@Qualifier("taskBatchServiceImpl") TaskBatchService delegate, TaskCache taskCache) {
+        this.delegate = delegate;
+        this.taskCache = taskCache;
+    }
+
+    @Override
+    public List<TaskBatchResult> createAll(List<TaskData> tasks) {
+        return refresh(delegate.createAll(tasks));
+    }
+
+    @Override
+    public List<TaskBatchResult> updateAll(List<TaskData> tasks) {
+        try {
+            return refresh(delegate.updateAll(tasks));
+        } catch (RuntimeException e) {
+            tasks.forEach(task -> taskCache.invalidate(task.getId()));
+            throw e;
+        }
+    }
+
+    @Override
+    public List<TaskBatchResult> deleteAll(List<Long> ids) {
+        try {
+            return refresh(delegate.deleteAll(ids));
+        } catch (RuntimeException e) {
+            ids.forEach(taskCache::invalidate);
+            throw e;
+        }
+    }
+
+    private List<TaskBatchResult> refresh(List<TaskBatchResult> results) {
+        for (var result : results) {
+            if (result.getId() == null) continue;
+            switch (result.getStatus()) {
+                case CREATED, UPDATED -> taskCache.put(result.getTask());
+                case DELETED, NOT_FOUND -> taskCache.putMissing(result.getId());
+                default -> taskCache.invalidate(result.getId());
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,123 @@
+package ru.zyablov.task.list.cache;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.dto.TaskFilter;
+import ru.zyablov.task.list.dto.TaskLookupResult;
+import ru.zyablov.task.list.dto.TaskPage;
+import ru.zyablov.task.list.dto.TaskPatch;
+import ru.zyablov.task.list.exception.NoSuchTaskException;
+import ru.zyablov.task.list.exception.TaskVersionMismatchException;
+import ru.zyablov.task.list.service.TaskService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Кэширующая обёртка над {@link TaskService}. Чтение по id идёт через кэш,
+ * после фиксации транзакции созданная задача записывается в кэш, изменённая - удаляется из него
+ * (следующее чтение возьмёт из БД её полное состояние), удалённая - кэшируется как отсутствующая.
+ * Промах кэша читается в транзакции на запись, то есть всегда из основной БД: строка с отстающей реплики
+ * осталась бы в кэше на весь task.cache.ttl.
+ */
+@Primary
+@Service
+@ConditionalOnProperty(prefix = "task.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CachingTaskService implements TaskService {
+    private final TaskService delegate;
+    private final TaskCache taskCache;
+    private final TransactionTemplate transactionTemplate;
+
+    public CachingTaskService(@Qualifier("taskServiceImpl") TaskService delegate, TaskCache taskCache,
+                              TransactionTemplate transactionTemplate) {
+        this.delegate = delegate;
+        this.taskCache = taskCache;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public TaskPage findAll(TaskFilter filter, String cursor, int limit) {
+        return delegate.findAll(filter, cursor, limit);
+    }
+
+    @Override
+    public TaskPage search(String query, String cursor, int limit) {
+        return delegate.search(query, cursor, limit);
+    }
+
+    @Override
+    public void export(TaskFilter filter, Consumer<TaskData> consumer) {
+        delegate.export(filter, consumer);
+    }
+
+    @Override
+    public TaskData findById(Long id) throws NoSuchTaskException {
+        return taskCache.get(id, this::load)
+                .orElseThrow(() -> new NoSuchTaskException("Не найден задача с id = " + id));
+    }
+
+    @Override
+    public TaskLookupResult findAllById(List<Long> ids) {
+        return delegate.findAllById(ids);
+    }
+
+    @Override
+    public Optional<Long> findVersionById(Long id) {
+        var cached = taskCache.getIfPresent(id);
+        if (cached.isPresent()) {
+            return cached.map(TaskData::getVersion);
+        }
+        return delegate.findVersionById(id);
+    }
+
+    @Override
+    public TaskData create(TaskData taskData) {
+        var created = delegate.create(taskData);
+        taskCache.put(created);
+        return created;
+    }
+
+    @Override
+    public TaskData update(Long id, TaskData taskData, Long expectedVersion) throws NoSuchTaskException, TaskVersionMismatchException {
+        try {
+            return delegate.update(id, taskData, expectedVersion);
+        } finally {
+            taskCache.invalidate(id);
+        }
+    }
+
+    @Override
+    public TaskData patch(Long id, TaskPatch patch, Long expectedVersion) throws NoSuchTaskException, TaskVersionMismatchException {
+        try {
+            return delegate.patch(id, patch, expectedVersion);
+        } finally {
+            taskCache.invalidate(id);
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        try {
+            delegate.delete(id);
+            taskCache.putMissing(id);
+        } catch (RuntimeException e) {
+            taskCache.invalidate(id);
+            throw e;
+        }
+    }
+
+    private Optional<TaskData> load(Long id) {
+        return transactionTemplate.execute(status -> {
+            try {
+                return Optional.of(delegate.findById(id));
+            } catch (NoSuchTaskException e) {
+                return Optional.empty();
+            }
+        });
+    }
+}
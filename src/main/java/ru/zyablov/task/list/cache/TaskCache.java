@@ -0,0 +1,93 @@
+package ru.zyablov.task.list.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.zyablov.task.list.config.TaskCacheProperties;
+import ru.zyablov.task.list.dto.TaskData;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Ограниченный по размеру кэш задач по id. Отсутствие задачи тоже кэшируется
+ * (пустой Optional) с отдельным, более коротким временем жизни.
+ * Метрики попаданий, промахов и вытеснений публикуются под именем cache.* с тегом cache=tasks.
+ */
+@Component
+@ConditionalOnProperty(prefix = "task.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskCache {
+    static final String CACHE_NAME = "tasks";
+
+    private final Cache<Long, Optional<TaskData>> cache;
+
+    public TaskCache(TaskCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfter(new TaskExpiry(properties.getTtl().toNanos(), properties.getNegativeTtl().toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Получить задачу из кэша или загрузить её. Одновременные загрузки одного id выполняются один раз.
+     *
+     * @return Optional<TaskData> пустой, если задачи нет
+     */
+    public Optional<TaskData> get(Long id, Function<Long, Optional<TaskData>> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Получить задачу, только если она уже есть в кэше.
+     *
+     * @return Optional<TaskData> пустой, если задачи нет в кэше или она отмечена как отсутствующая
+     */
+    public Optional<TaskData> getIfPresent(Long id) {
+        var cached = cache.getIfPresent(id);
+        return cached == null ? Optional.empty() : cached;
+    }
+
+    /**
+     * Положить актуальное состояние задачи.
+     */
+    public void put(TaskData taskData) {
+        cache.put(taskData.getId(), Optional.of(taskData));
+    }
+
+    /**
+     * Отметить задачу как отсутствующую.
+     */
+    public void putMissing(Long id) {
+        cache.put(id, Optional.empty());
+    }
+
+    /**
+     * Удалить задачу из кэша.
+     */
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    private record TaskExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<Long, Optional<TaskData>> {
+        @Override
+        public long expireAfterCreate(Long id, Optional<TaskData> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, Optional<TaskData> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, Optional<TaskData> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package ru.zyablov.task.list.changes;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.zyablov.task.list.config.TaskChangesProperties;
+import ru.zyablov.task.list.dto.TaskChange;
+import ru.zyablov.task.list.exception.ChangesExpiredException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Лента изменений задач в памяти экземпляра приложения. Каждому зафиксированному изменению присваивается
+ * следующий номер, последние historySize изменений хранятся в кольцевом буфере, из которого читают
+ * подписчики SSE и запросы long-poll. Номера начинаются заново после перезапуска и не связаны между
+ * экземплярами, поэтому клиенту отдаётся курсор epoch-seq, где epoch выбирается случайно при запуске ленты.
+ * Курсор с чужой epoch (после перезапуска или с другого экземпляра) не принимается: клиент получает
+ * reset (SSE) или 410 (long-poll) и должен перечитать список задач.
+ * <p>
+ * Подписчик не копит собственную очередь: он хранит номер последнего отправленного изменения.
+ * Если он отстал больше чем на subscriberBufferSize изменений, подключение закрывается,
+ * и клиент может продолжить с Last-Event-ID.
+ */
+@Slf4j
+@Component
+public class TaskChangeFeed {
+    static final String CHANGE_EVENT = "change";
+    static final String RESET_EVENT = "reset";
+    private static final int SEND_BATCH_SIZE = 100;
+
+    private final TaskChange[] history;
+    private final long maxLag;
+    private final long sseTimeoutMillis;
+    private final Set<Subscriber> subscribers = new HashSet<>();
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    /**
+     * Подписчик стоит в очереди не больше одного раза (флаг scheduled), поэтому очередь ограничена
+     * числом подписчиков, а потоков не больше senderThreads.
+     */
+    private final ExecutorService sender;
+    private List<Waiter> waiters = new ArrayList<>();
+    private long seq;
+
+    public TaskChangeFeed(TaskChangesProperties properties) {
+        this.history = new TaskChange[Math.max(properties.getHistorySize(), 1)];
+        this.maxLag = Math.min(Math.max(properties.getSubscriberBufferSize(), 1), history.length);
+        this.sseTimeoutMillis = properties.getSseTimeout().toMillis();
+        var threadNumber = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(Math.max(properties.getSenderThreads(), 1), runnable -> {
+            var thread = new Thread(runnable, "task-changes-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Добавить изменение в ленту после фиксации транзакции, в которой оно сделано.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        publish(event);
+    }
+
+    /**
+     * @return long номер последнего изменения
+     */
+    public synchronized long currentSeq() {
+        return seq;
+    }
+
+    /**
+     * @return String курсор, который клиент передаёт в after или Last-Event-ID, чтобы продолжить после seq
+     */
+    public String cursor(long seq) {
+        return epoch + "-" + seq;
+    }
+
+    /**
+     * Получить изменения после курсора after (без него - после текущего номера).
+     * Если их пока нет, callback будет вызван со следующим изменением.
+     *
+     * @return Runnable отмена ожидания
+     */
+    public Runnable await(String after, int limit, Consumer<List<TaskChange>> callback) {
+        List<TaskChange> changes;
+        synchronized (this) {
+            var from = after == null ? Long.valueOf(seq) : parseCursor(after);
+            changes = from == null ? null : read(from, limit);
+            if (changes == null) {
+                throw new ChangesExpiredException("Изменения после " + after + " недоступны, перечитайте список задач");
+            }
+            if (changes.isEmpty()) {
+                var waiter = new Waiter(callback);
+                waiters.add(waiter);
+                return () -> cancel(waiter);
+            }
+        }
+        callback.accept(changes);
+        return () -> {
+        };
+    }
+
+    /**
+     * Подписаться на изменения по SSE. Если курсор after задан, сначала отправляются изменения после него.
+     *
+     * @return SseEmitter
+     */
+    public SseEmitter subscribe(String after) {
+        var subscriber = new Subscriber(new SseEmitter(sseTimeoutMillis));
+        synchronized (this) {
+            var from = after == null ? null : parseCursor(after);
+            subscriber.reset = after != null && (from == null || read(from, 0) == null);
+            subscriber.cursor = after == null || subscriber.reset ? seq : from;
+            subscriber.scheduled = true;
+            subscribers.add(subscriber);
+        }
+        subscriber.emitter.onCompletion(() -> unsubscribe(subscriber));
+        subscriber.emitter.onTimeout(() -> unsubscribe(subscriber));
+        subscriber.emitter.onError(e -> unsubscribe(subscriber));
+        sender.execute(() -> drain(subscriber));
+        return subscriber.emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List<Subscriber> active;
+        synchronized (this) {
+            active = new ArrayList<>(subscribers);
+            subscribers.clear();
+        }
+        active.forEach(subscriber -> subscriber.emitter.complete());
+        sender.shutdownNow();
+    }
+
+    TaskChange publish(TaskChangedEvent event) {
+        TaskChange change;
+        var lagging = new ArrayList<Subscriber>();
+        var ready = new ArrayList<Subscriber>();
+        List<Waiter> woken;
+        synchronized (this) {
+            change = new TaskChange(++seq, event.type(), event.id(), event.task());
+            history[(int) (seq % history.length)] = change;
+            for (var it = subscribers.iterator(); it.hasNext(); ) {
+                var subscriber = it.next();
+                if (seq - subscriber.cursor > maxLag) {
+                    it.remove();
+                    lagging.add(subscriber);
+                } else if (!subscriber.scheduled) {
+                    subscriber.scheduled = true;
+                    ready.add(subscriber);
+                }
+            }
+            woken = waiters;
+            waiters = new ArrayList<>();
+        }
+        lagging.forEach(subscriber -> {
+            log.info("Подписчик ленты изменений отстал больше чем на {} изменений и отключён", maxLag);
+            subscriber.emitter.complete();
+        });
+        ready.forEach(subscriber -> sender.execute(() -> drain(subscriber)));
+        woken.forEach(waiter -> waiter.callback.accept(List.of(change)));
+        return change;
+    }
+
+    /**
+     * Разобрать курсор epoch-seq.
+     *
+     * @return Long номер изменения или null, если курсор выдан другим экземпляром или до перезапуска
+     */
+    private Long parseCursor(String cursor) {
+        var separator = cursor.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(cursor.substring(0, separator))) return null;
+        try {
+            return Long.parseLong(cursor.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Прочитать изменения после номера after.
+     *
+     * @return List<TaskChange> не больше limit изменений или null, если часть из них уже вытеснена из буфера
+     */
+    private List<TaskChange> read(long after, int limit) {
+        var oldest = Math.max(1, seq - history.length + 1);
+        if (after < oldest - 1 || after > seq) return null;
+        var to = Math.min(seq, after + limit);
+        var changes = new ArrayList<TaskChange>((int) (to - after));
+        for (long i = after + 1; i <= to; i++) {
+            changes.add(history[(int) (i % history.length)]);
+        }
+        return changes;
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.reset) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .name(RESET_EVENT)
+                        .id(cursor(subscriber.cursor))
+                        .data(Map.of("seq", subscriber.cursor), MediaType.APPLICATION_JSON));
+                subscriber.reset = false;
+            }
+            while (true) {
+                List<TaskChange> changes;
+                synchronized (this) {
+                    if (!subscribers.contains(subscriber)) return;
+                    changes = read(subscriber.cursor, SEND_BATCH_SIZE);
+                    if (changes == null) {
+                        // Пока отправляли, буфер ушёл вперёд: закрываем, клиент переподключится.
+                        subscribers.remove(subscriber);
+                        subscriber.emitter.complete();
+                        return;
+                    }
+                    if (changes.isEmpty()) {
+                        subscriber.scheduled = false;
+                        return;
+                    }
+                }
+                for (var change : changes) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .name(CHANGE_EVENT)
+                            .id(cursor(change.getSeq()))
+                            .data(change, MediaType.APPLICATION_JSON));
+                    subscriber.cursor = change.getSeq();
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Клиент отключился или подключение уже закрыто.
+            unsubscribe(subscriber);
+        }
+    }
+
+    private synchronized void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    private synchronized void cancel(Waiter waiter) {
+        waiters.remove(waiter);
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private volatile long cursor;
+        private volatile boolean reset;
+        /**
+         * Отправка уже запланирована или идёт. Меняется только под блокировкой ленты.
+         */
+        private boolean scheduled;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    private record Waiter(Consumer<List<TaskChange>> callback) {
+    }
+}
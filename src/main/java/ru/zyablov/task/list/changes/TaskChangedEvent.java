@@ -0,0 +1,22 @@
+package ru.zyablov.task.list.changes;
+
+import ru.zyablov.task.list.dto.ChangeType;
+import ru.zyablov.task.list.dto.TaskData;
+
+/**
+ * Событие об изменении задачи. Публикуется внутри транзакции и доставляется слушателям после фиксации.
+ */
+public record TaskChangedEvent(ChangeType type, Long id, TaskData task) {
+
+    public static TaskChangedEvent created(TaskData task) {
+        return new TaskChangedEvent(ChangeType.CREATED, task.getId(), task);
+    }
+
+    public static TaskChangedEvent updated(TaskData task) {
+        return new TaskChangedEvent(ChangeType.UPDATED, task.getId(), task);
+    }
+
+    public static TaskChangedEvent deleted(Long id) {
+        return new TaskChangedEvent(ChangeType.DELETED, id, null);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.zyablov.task.list.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки переноса завершённых задач в архив.
+ */
+@Data
+@ConfigurationProperties(prefix = "task.archive")
+public class TaskArchiveProperties {
+    private boolean enabled = true;
+    /**
+     * Пауза между проходами в миллисекундах.
+     */
+    private long intervalMs = 60_000;
+    /**
+     * Завершённая задача переносится в архив, если не изменялась дольше этого времени.
+     */
+    private Duration age = Duration.ofDays(90);
+    /**
+     * Количество задач, переносимых в одной транзакции.
+     */
+    private int batchSize = 1000;
+    /**
+     * Ограничение числа пачек за проход, чтобы один экземпляр не занимал пул соединений надолго.
+     */
+    private int maxBatchesPerRun = 100;
+}
@@ -0,0 +1,20 @@
+package ru.zyablov.task.list.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки пакетных операций над задачами.
+ */
+@Data
+@ConfigurationProperties(prefix = "task.batch")
+public class TaskBatchProperties {
+    /**
+     * Количество задач, сохраняемых в одной транзакции.
+     */
+    private int chunkSize = 500;
+    /**
+     * Максимальное количество задач в одном запросе.
+     */
+    private int maxSize = 10_000;
+}
@@ -0,0 +1,28 @@
+package ru.zyablov.task.list.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша задач. Кэш локальный для экземпляра приложения, поэтому изменения,
+ * сделанные другими экземплярами, становятся видны не позже чем через ttl.
+ */
+@Data
+@ConfigurationProperties(prefix = "task.cache")
+public class TaskCacheProperties {
+    private boolean enabled = true;
+    /**
+     * Максимальное количество задач в кэше.
+     */
+    private long maxSize = 10_000;
+    /**
+     * Время жизни найденной задачи.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+    /**
+     * Время жизни отметки об отсутствии задачи.
+     */
+    private Duration negativeTtl = Duration.ofSeconds(30);
+}
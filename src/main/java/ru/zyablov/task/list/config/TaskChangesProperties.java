@@ -0,0 +1,34 @@
+package ru.zyablov.task.list.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки ленты изменений задач.
+ */
+@Data
+@ConfigurationProperties(prefix = "task.changes")
+public class TaskChangesProperties {
+    /**
+     * Сколько последних изменений хранится для продолжения чтения с заданного номера.
+     */
+    private int historySize = 10_000;
+    /**
+     * На сколько изменений подписчик может отстать, прежде чем его отключат.
+     */
+    private int subscriberBufferSize = 1_000;
+    /**
+     * Сколько ждёт запрос long-poll, если новых изменений нет.
+     */
+    private Duration pollTimeout = Duration.ofSeconds(30);
+    /**
+     * Время жизни SSE-подключения, после которого клиент переподключается с Last-Event-ID.
+     */
+    private Duration sseTimeout = Duration.ofMinutes(30);
+    /**
+     * Сколько потоков отправляют события подписчикам SSE.
+     */
+    private int senderThreads = 4;
+}
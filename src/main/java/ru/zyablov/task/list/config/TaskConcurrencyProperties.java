@@ -0,0 +1,25 @@
+package ru.zyablov.task.list.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Ограничение числа одновременных запросов к API задач, которые обращаются к БД.
+ * Имеет смысл при обработке запросов в виртуальных потоках: сами потоки дешёвые,
+ * а соединений в пуле столько, сколько выдержит БД.
+ */
+@Data
+@ConfigurationProperties(prefix = "task.concurrency")
+public class TaskConcurrencyProperties {
+    private boolean enabled = false;
+    /**
+     * Число одновременно обрабатываемых запросов. Обычно равно размеру пула соединений.
+     */
+    private int maxConcurrent = 20;
+    /**
+     * Сколько запрос может ждать своей очереди, прежде чем получит 503.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+}
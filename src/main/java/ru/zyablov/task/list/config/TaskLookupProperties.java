@@ -0,0 +1,27 @@
+package ru.zyablov.task.list.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки объединения запросов задач по id.
+ */
+@Data
+@ConfigurationProperties(prefix = "task.lookup")
+public class TaskLookupProperties {
+    /**
+     * Объединять одновременные запросы по id. Если выключено, каждый запрос читает задачу сам.
+     */
+    private boolean coalescingEnabled = true;
+    /**
+     * Сколько первый запрос ждёт остальные перед чтением, если в это время идёт другое чтение.
+     * Без других чтений запрос читается сразу.
+     */
+    private Duration window = Duration.ofMillis(2);
+    /**
+     * Максимальное количество id в одном запросе. Набравшаяся пачка читается, не дожидаясь конца окна.
+     */
+    private int maxBatchSize = 100;
+}
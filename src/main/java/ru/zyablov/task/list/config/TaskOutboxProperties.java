@@ -0,0 +1,34 @@
+package ru.zyablov.task.list.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Настройки отправки сообщений outbox.
+ */
+@Data
+@ConfigurationProperties(prefix = "task.outbox")
+public class TaskOutboxProperties {
+    /**
+     * Отправлять ли сообщения с этого экземпляра. Запись в outbox выполняется всегда.
+     */
+    private boolean publisherEnabled = true;
+    /**
+     * Количество сообщений, отправляемых в одной транзакции.
+     */
+    private int batchSize = 100;
+    /**
+     * Пауза между опросами outbox в миллисекундах.
+     */
+    private long pollIntervalMs = 1000;
+    /**
+     * Получатель сообщений: log или file. Собственный бин TaskOutboxSink заменяет оба.
+     */
+    private String sink = "log";
+    /**
+     * Файл для получателя file, сообщения дописываются в него построчно в JSON.
+     */
+    private Path file = Path.of("task-outbox.ndjson");
+}
@@ -0,0 +1,35 @@
+package ru.zyablov.task.list.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки поиска просроченных задач.
+ */
+@Data
+@ConfigurationProperties(prefix = "task.overdue")
+public class TaskOverdueProperties {
+    private boolean enabled = true;
+    /**
+     * Пауза между проходами в миллисекундах.
+     */
+    private long pollIntervalMs = 10_000;
+    /**
+     * Количество задач, отмечаемых и передаваемых обработчику в одной транзакции.
+     */
+    private int batchSize = 100;
+    /**
+     * Ширина интервала сроков, который просматривается за один запрос.
+     */
+    private Duration bucket = Duration.ofHours(1);
+    /**
+     * Ограничение числа пачек за проход, чтобы один экземпляр не занимал пул соединений надолго.
+     */
+    private int maxBatchesPerRun = 100;
+    /**
+     * После скольких ошибок обработчика на одной задаче она отмечается без уведомления.
+     */
+    private int maxAttempts = 5;
+}
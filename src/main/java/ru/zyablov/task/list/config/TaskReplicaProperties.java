@@ -0,0 +1,36 @@
+package ru.zyablov.task.list.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки чтения с реплик.
+ */
+@Data
+@ConfigurationProperties(prefix = "task.replica")
+public class TaskReplicaProperties {
+    private boolean enabled = false;
+    /**
+     * Реплики с большим отставанием от основной БД не используются, пока не догонят её.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+    /**
+     * Время ожидания соединения с репликой, после которого запрос уходит в основную БД.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        /**
+         * Если не задан, используется пользователь основной БД.
+         */
+        private String username;
+        private String password;
+    }
+}
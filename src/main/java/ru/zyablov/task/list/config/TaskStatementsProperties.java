@@ -0,0 +1,17 @@
+package ru.zyablov.task.list.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки контроля количества SQL-запросов.
+ */
+@Data
+@ConfigurationProperties(prefix = "task.statements")
+public class TaskStatementsProperties {
+    /**
+     * Писать в лог HTTP-запросы, выполнившие больше budget SQL-запросов.
+     */
+    private boolean budgetEnabled = false;
+    private int budget = 10;
+}
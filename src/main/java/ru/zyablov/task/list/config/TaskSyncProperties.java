@@ -0,0 +1,28 @@
+package ru.zyablov.task.list.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки синхронизации задач.
+ */
+@Data
+@ConfigurationProperties(prefix = "task.sync")
+public class TaskSyncProperties {
+    /**
+     * На сколько назад откатывается токен, когда клиент догнал изменения. Транзакция, начатая раньше,
+     * но зафиксированная позже уже переданных изменений, иначе была бы пропущена.
+     * Клиент получает часть изменений повторно и должен применять их по версии.
+     */
+    private Duration overlap = Duration.ofSeconds(10);
+    /**
+     * Сколько хранятся отметки об удалении. Более старый токен требует полной синхронизации.
+     */
+    private Duration tombstoneRetention = Duration.ofDays(30);
+    /**
+     * Пауза между очистками старых отметок об удалении в миллисекундах.
+     */
+    private long purgeIntervalMs = 3_600_000;
+}
@@ -0,0 +1,77 @@
+package ru.zyablov.task.list.controller;
+
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.zyablov.task.list.dto.TaskBatchResult;
+import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.service.TaskBatchService;
+
+import java.util.List;
+
+/**
+ * Контроллер пакетных операций над задачами.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/tasks/batch")
+public class TaskBatchController {
+    private final TaskBatchService taskBatchService;
+    private static final String APPLICATION_JSON = "application/json";
+    private static final String APPLICATION_CBOR = "application/cbor";
+
+    /**
+     * Создать задачи.
+     *
+     * @return List<TaskBatchResult>
+     */
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Успешный ответ, результат по каждой задаче"),
+            @ApiResponse(responseCode = "400", description = "Слишком много задач в запросе"),
+            @ApiResponse(responseCode = "500", description = "Ошибка на сервере")
+    })
+    @PostMapping(value = "", consumes = {APPLICATION_JSON, APPLICATION_CBOR}, produces = {APPLICATION_JSON, APPLICATION_CBOR})
+    public ResponseEntity<List<TaskBatchResult>> createTasks(@RequestBody List<TaskData> tasks) {
+        return ResponseEntity.ok(taskBatchService.createAll(tasks));
+    }
+
+    /**
+     * Обновить задачи целиком, как PUT /tasks/{id}: поля, которых нет в задаче, очищаются.
+     *
+     * @return List<TaskBatchResult>
+     */
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Успешный ответ, результат по каждой задаче"),
+            @ApiResponse(responseCode = "400", description = "Слишком много задач в запросе"),
+            @ApiResponse(responseCode = "409", description = "Задачу изменили параллельно, запрос можно повторить"),
+            @ApiResponse(responseCode = "500", description = "Ошибка на сервере")
+    })
+    @PutMapping(value = "", consumes = {APPLICATION_JSON, APPLICATION_CBOR}, produces = {APPLICATION_JSON, APPLICATION_CBOR})
+    public ResponseEntity<List<TaskBatchResult>> updateTasks(@RequestBody List<TaskData> tasks) {
+        return ResponseEntity.ok(taskBatchService.updateAll(tasks));
+    }
+
+    /**
+     * Удалить задачи.
+     *
+     * @return List<TaskBatchResult>
+     */
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Успешный ответ, результат по каждому id"),
+            @ApiResponse(responseCode = "400", description = "Слишком много id в запросе"),
+            @ApiResponse(responseCode = "500", description = "Ошибка на сервере")
+    })
+    @DeleteMapping(value = "", consumes = {APPLICATION_JSON, APPLICATION_CBOR}, produces = {APPLICATION_JSON, APPLICATION_CBOR})
+    public ResponseEntity<List<TaskBatchResult>> deleteTasks(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(taskBatchService.deleteAll(ids));
+    }
+}
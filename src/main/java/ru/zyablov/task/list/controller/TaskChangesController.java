@@ -0,0 +1,79 @@
+package ru.zyablov.task.list.controller;
+
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.zyablov.task.list.changes.TaskChangeFeed;
+import ru.zyablov.task.list.config.TaskChangesProperties;
+import ru.zyablov.task.list.dto.TaskChange;
+
+import java.util.List;
+
+/**
+ * Контроллер ленты изменений задач.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/tasks/changes")
+public class TaskChangesController {
+    static final String CHANGE_SEQ_HEADER = "X-Change-Seq";
+    private static final int MAX_POLL_SIZE = 1_000;
+
+    private final TaskChangeFeed changeFeed;
+    private final TaskChangesProperties properties;
+
+    /**
+     * Подписаться на изменения задач (Server-Sent Events). Чтение продолжается после курсора из after
+     * или Last-Event-ID, без них отправляются только новые изменения.
+     *
+     * @return SseEmitter
+     */
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Поток событий change и reset"),
+            @ApiResponse(responseCode = "500", description = "Ошибка на сервере")
+    })
+    @GetMapping(value = "", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(value = "after", required = false) String after,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeFeed.subscribe(after != null ? after : lastEventId);
+    }
+
+    /**
+     * Получить изменения после курсора after (long-poll). Если их нет, запрос ждёт до pollTimeout.
+     * Курсор, с которого продолжать, возвращается в заголовке X-Change-Seq.
+     *
+     * @return List<TaskChange>
+     */
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Успешный ответ"),
+            @ApiResponse(responseCode = "410", description = "Изменения после after недоступны или курсор выдан другим экземпляром"),
+            @ApiResponse(responseCode = "500", description = "Ошибка на сервере")
+    })
+    @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<ResponseEntity<List<TaskChange>>> pollChanges(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        var from = after != null ? after : changeFeed.cursor(changeFeed.currentSeq());
+        var result = new DeferredResult<ResponseEntity<List<TaskChange>>>(properties.getPollTimeout().toMillis());
+        var cancel = changeFeed.await(from, Math.min(Math.max(limit, 1), MAX_POLL_SIZE),
+                changes -> result.setResult(response(changeFeed.cursor(changes.get(changes.size() - 1).getSeq()), changes)));
+        result.onTimeout(() -> result.setResult(response(from, List.of())));
+        result.onCompletion(cancel);
+        return result;
+    }
+
+    private static ResponseEntity<List<TaskChange>> response(String cursor, List<TaskChange> changes) {
+        return ResponseEntity.ok().header(CHANGE_SEQ_HEADER, cursor).body(changes);
+    }
+}
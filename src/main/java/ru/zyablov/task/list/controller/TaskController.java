@@ -3,64 +3,147 @@ package ru.zyablov.task.list.controller;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.dto.TaskFilter;
+import ru.zyablov.task.list.dto.TaskLookupResult;
+import ru.zyablov.task.list.dto.TaskPatch;
 import ru.zyablov.task.list.exception.NoSuchTaskException;
+import ru.zyablov.task.list.exception.TaskVersionMismatchException;
 import ru.zyablov.task.list.service.TaskService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static ru.zyablov.task.list.utils.ETagUtils.etag;
+import static ru.zyablov.task.list.utils.ETagUtils.etagMatches;
+import static ru.zyablov.task.list.utils.ETagUtils.expectedVersion;
+
 /**
  * Контроллер для работы с задачами.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @RequestMapping("/tasks")
 public class TaskController {
     private final TaskService taskService;
     private static final String APPLICATION_JSON = "application/json";
+    private static final String APPLICATION_CBOR = "application/cbor";
+    private static final String APPLICATION_MERGE_PATCH_JSON = "application/merge-patch+json";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String DEFAULT_PAGE_SIZE = "50";
+
+    /**
+     * Получить страницу задач, упорядоченных по сроку выполнения.
+     * Курсор следующей страницы возвращается в заголовке X-Next-Cursor.
+     *
+     * @return List<TaskData>
+     */
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Успешный ответ"),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор"),
+            @ApiResponse(responseCode = "500", description = "Ошибка на сервере")
+    })
+    @GetMapping(value = "", produces = {APPLICATION_JSON, APPLICATION_CBOR})
+    public ResponseEntity<List<TaskData>> getListTasks(
+            @RequestParam(value = "completed", required = false) Boolean completed,
+            @RequestParam(value = "dueFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @RequestParam(value = "dueTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        var filter = new TaskFilter(completed, dueFrom, dueTo);
+        var page = taskService.findAll(filter, cursor, limit);
+        var response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
 
     /**
-     * Получить все задачи.
+     * Найти задачи по словам из названия и описания, самые релевантные первыми.
+     * Курсор следующей страницы возвращается в заголовке X-Next-Cursor.
      *
-     * @return List<String>
+     * @return List<TaskData>
      */
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Успешный ответ"),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор"),
             @ApiResponse(responseCode = "500", description = "Ошибка на сервере")
     })
-    @GetMapping(value = "", produces = APPLICATION_JSON)
-    public ResponseEntity<List<TaskData>> getListTasks() {
-        return ResponseEntity.ok(taskService.findAll());
+    @GetMapping(value = "/search", produces = {APPLICATION_JSON, APPLICATION_CBOR})
+    public ResponseEntity<List<TaskData>> searchTasks(
+            @RequestParam(value = "q") String query,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        var page = taskService.search(query, cursor, limit);
+        var response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     /**
-     * Получить задачу по id.
+     * Получить задачу по id. Версия задачи возвращается в заголовке ETag.
+     * Если версия совпадает с If-None-Match, возвращается 304 без тела.
      *
      * @return String
      */
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Успешный ответ"),
+            @ApiResponse(responseCode = "304", description = "Задача не изменилась"),
             @ApiResponse(responseCode = "400", description = "Некорректный запрос"),
             @ApiResponse(responseCode = "500", description = "Ошибка на сервере")
     })
-    @GetMapping(value = "/{id}", produces = APPLICATION_JSON)
-    public ResponseEntity<?> getTask(@PathVariable("id") Long id) {
+    @GetMapping(value = "/{id}", produces = {APPLICATION_JSON, APPLICATION_CBOR})
+    public ResponseEntity<?> getTask(@PathVariable("id") Long id,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            return ResponseEntity.ok(taskService.findById(id));
+            if (ifNoneMatch != null) {
+                var version = taskService.findVersionById(id);
+                if (version.isPresent() && etagMatches(ifNoneMatch, version.get())) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag(version.get())).build();
+                }
+            }
+            var task = taskService.findById(id);
+            return ResponseEntity.ok().eTag(etag(task.getVersion())).body(task);
         } catch (NoSuchTaskException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    /**
+     * Получить задачи по списку id одним запросом. Отсутствующие id перечисляются в missing.
+     *
+     * @return TaskLookupResult
+     */
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Успешный ответ"),
+            @ApiResponse(responseCode = "400", description = "Слишком много id в запросе"),
+            @ApiResponse(responseCode = "500", description = "Ошибка на сервере")
+    })
+    @PostMapping(value = "/lookup", consumes = {APPLICATION_JSON, APPLICATION_CBOR}, produces = {APPLICATION_JSON, APPLICATION_CBOR})
+    public ResponseEntity<TaskLookupResult> lookupTasks(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(taskService.findAllById(ids));
+    }
+
     /**
      * Создать задачу.
      *
@@ -70,27 +153,58 @@ public class TaskController {
             @ApiResponse(responseCode = "200", description = "Успешный ответ"),
             @ApiResponse(responseCode = "500", description = "Ошибка на сервере")
     })
-    @PostMapping(value = "", consumes = APPLICATION_JSON, produces = APPLICATION_JSON)
+    @PostMapping(value = "", consumes = {APPLICATION_JSON, APPLICATION_CBOR}, produces = {APPLICATION_JSON, APPLICATION_CBOR})
     public ResponseEntity<TaskData> createTask(@RequestBody TaskData taskData) {
         return ResponseEntity.ok(taskService.create(taskData));
     }
 
     /**
-     * Обновить задачу.
+     * Обновить задачу. При переданном If-Match задача обновляется, только если её версия не изменилась.
      *
      * @return String
      */
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Успешный ответ"),
             @ApiResponse(responseCode = "400", description = "Некорректный запрос"),
+            @ApiResponse(responseCode = "409", description = "Задача в архиве и не изменяется"),
+            @ApiResponse(responseCode = "412", description = "Задача была изменена"),
+            @ApiResponse(responseCode = "500", description = "Ошибка на сервере")
+    })
+    @PutMapping(value = "/{id}", consumes = {APPLICATION_JSON, APPLICATION_CBOR}, produces = {APPLICATION_JSON, APPLICATION_CBOR})
+    public ResponseEntity<?> updateTask(@PathVariable("id") Long id, @RequestBody TaskData taskData,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            var task = taskService.update(id, taskData, expectedVersion(ifMatch));
+            return ResponseEntity.ok().eTag(etag(task.getVersion())).body(task);
+        } catch (NoSuchTaskException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (TaskVersionMismatchException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Частично обновить задачу (JSON Merge Patch). If-Match обрабатывается так же, как при обновлении.
+     *
+     * @return TaskData
+     */
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Успешный ответ"),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос"),
+            @ApiResponse(responseCode = "412", description = "Задача была изменена"),
+            @ApiResponse(responseCode = "409", description = "Задачу изменили параллельно (запрос можно повторить) или она в архиве"),
             @ApiResponse(responseCode = "500", description = "Ошибка на сервере")
     })
-    @PutMapping(value = "/{id}", consumes = APPLICATION_JSON, produces = APPLICATION_JSON)
-    public ResponseEntity<?> updateTask(@PathVariable("id") Long id, @RequestBody TaskData taskData) {
+    @PatchMapping(value = "/{id}", consumes = {APPLICATION_MERGE_PATCH_JSON, APPLICATION_JSON, APPLICATION_CBOR}, produces = {APPLICATION_JSON, APPLICATION_CBOR})
+    public ResponseEntity<?> patchTask(@PathVariable("id") Long id, @RequestBody TaskPatch patch,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            return ResponseEntity.ok(taskService.update(id, taskData));
+            var task = taskService.patch(id, patch, expectedVersion(ifMatch));
+            return ResponseEntity.ok().eTag(etag(task.getVersion())).body(task);
         } catch (NoSuchTaskException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (TaskVersionMismatchException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
         }
     }
 
@@ -101,7 +215,7 @@ public class TaskController {
             @ApiResponse(responseCode = "204", description = "Успешный ответ"),
             @ApiResponse(responseCode = "500", description = "Ошибка на сервере")
     })
-    @DeleteMapping(value = "/{id}", produces = APPLICATION_JSON)
+    @DeleteMapping(value = "/{id}", produces = {APPLICATION_JSON, APPLICATION_CBOR})
     public ResponseEntity<Void> deleteTask(@PathVariable("id") Long id) {
         taskService.delete(id);
         return ResponseEntity.noContent().build();
@@ -0,0 +1,80 @@
+package ru.zyablov.task.list.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.zyablov.task.list.dto.TaskFilter;
+import ru.zyablov.task.list.export.ExportFormat;
+import ru.zyablov.task.list.export.TaskExportWriter;
+import ru.zyablov.task.list.service.TaskService;
+
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Контроллер потоковой выгрузки задач.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/tasks/export")
+public class TaskExportController {
+    private static final String GZIP = "gzip";
+
+    private final TaskService taskService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Выгрузить задачи в формате NDJSON или CSV. Ответ сжимается gzip, если клиент его поддерживает.
+     *
+     * @return StreamingResponseBody
+     */
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Успешный ответ"),
+            @ApiResponse(responseCode = "400", description = "Неподдерживаемый формат"),
+            @ApiResponse(responseCode = "500", description = "Ошибка на сервере")
+    })
+    @GetMapping("")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "completed", required = false) Boolean completed,
+            @RequestParam(value = "dueFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @RequestParam(value = "dueTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        var exportFormat = ExportFormat.of(format);
+        var filter = new TaskFilter(completed, dueFrom, dueTo);
+        var gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains(GZIP);
+
+        StreamingResponseBody body = outputStream -> {
+            var out = gzip ? new GZIPOutputStream(outputStream) : outputStream;
+            var writer = new TaskExportWriter(exportFormat, out, objectMapper);
+            writer.writeHeader();
+            taskService.export(filter, writer::write);
+            writer.flush();
+            if (out instanceof GZIPOutputStream gzipOut) {
+                gzipOut.finish();
+            }
+        };
+
+        var response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks." + exportFormat.getExtension())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(body);
+    }
+}
@@ -0,0 +1,41 @@
+package ru.zyablov.task.list.controller;
+
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.zyablov.task.list.dto.TaskStats;
+import ru.zyablov.task.list.service.TaskStatsService;
+
+/**
+ * Контроллер статистики по задачам.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/tasks/stats")
+public class TaskStatsController {
+    private static final String APPLICATION_JSON = "application/json";
+
+    private final TaskStatsService taskStatsService;
+
+    /**
+     * Получить количество задач: всего, завершённых, открытых и открытых по сроку.
+     * Берётся из счётчиков по дням; открытые задачи со сроком сегодня до текущего момента досчитываются
+     * по индексу, поэтому время ответа растёт с их числом.
+     *
+     * @return TaskStats
+     */
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Успешный ответ"),
+            @ApiResponse(responseCode = "500", description = "Ошибка на сервере")
+    })
+    @GetMapping(value = "", produces = APPLICATION_JSON)
+    public ResponseEntity<TaskStats> getStats() {
+        return ResponseEntity.ok(taskStatsService.getStats());
+    }
+}
@@ -0,0 +1,45 @@
+package ru.zyablov.task.list.controller;
+
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.zyablov.task.list.dto.TaskSyncPage;
+import ru.zyablov.task.list.service.TaskSyncService;
+
+/**
+ * Контроллер синхронизации задач для клиентов, хранящих задачи у себя.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/tasks/sync")
+public class TaskSyncController {
+    private static final String APPLICATION_JSON = "application/json";
+    private static final String APPLICATION_CBOR = "application/cbor";
+
+    private final TaskSyncService taskSyncService;
+
+    /**
+     * Получить задачи, изменённые и удалённые после токена. Без токена возвращаются все задачи.
+     * Пока hasMore = true, следующий запрос с новым токеном нужно сделать сразу.
+     *
+     * @return TaskSyncPage
+     */
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Успешный ответ"),
+            @ApiResponse(responseCode = "400", description = "Некорректный токен"),
+            @ApiResponse(responseCode = "410", description = "Токен устарел, нужна полная синхронизация"),
+            @ApiResponse(responseCode = "500", description = "Ошибка на сервере")
+    })
+    @GetMapping(value = "", produces = {APPLICATION_JSON, APPLICATION_CBOR})
+    public ResponseEntity<TaskSyncPage> sync(@RequestParam(value = "since", required = false) String since,
+                                             @RequestParam(value = "limit", defaultValue = "500") int limit) {
+        return ResponseEntity.ok(taskSyncService.sync(since, limit));
+    }
+}
@@ -0,0 +1,13 @@
+package ru.zyablov.task.list.dto;
+
+/**
+ * Результат обработки одного элемента пакетного запроса.
+ */
+public enum BatchStatus {
+    CREATED,
+    UPDATED,
+    DELETED,
+    NOT_FOUND,
+    INVALID,
+    FAILED
+}
@@ -0,0 +1,10 @@
+package ru.zyablov.task.list.dto;
+
+/**
+ * Вид изменения задачи в ленте изменений.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,51 @@
+package ru.zyablov.task.list.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.zyablov.task.list.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция синхронизации: последнее переданное клиенту изменение (lastUpd, id)
+ * и последнее удаление (deletedAt, taskId). Клиенту передаётся в виде непрозрачной строки.
+ */
+@Data
+@AllArgsConstructor
+public class SyncToken {
+    private static final String SEPARATOR = "|";
+
+    private LocalDateTime updatedAt;
+    private long updatedId;
+    private LocalDateTime deletedAt;
+    private long deletedId;
+
+    /**
+     * Закодировать токен в строку.
+     *
+     * @return String
+     */
+    public String encode() {
+        var raw = updatedAt + SEPARATOR + updatedId + SEPARATOR + deletedAt + SEPARATOR + deletedId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Раскодировать токен, полученный от клиента.
+     *
+     * @return SyncToken
+     */
+    public static SyncToken decode(String token) {
+        try {
+            var parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 4) throw new InvalidCursorException("Некорректный токен синхронизации: " + token);
+            return new SyncToken(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]),
+                    LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Некорректный токен синхронизации: " + token);
+        }
+    }
+}
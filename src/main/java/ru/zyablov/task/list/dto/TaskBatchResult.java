@@ -0,0 +1,28 @@
+package ru.zyablov.task.list.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат обработки одного элемента пакетного запроса.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskBatchResult {
+    /**
+     * Позиция элемента в запросе.
+     */
+    private int index;
+    private Long id;
+    private BatchStatus status;
+    private TaskData task;
+    private List<String> errors;
+}
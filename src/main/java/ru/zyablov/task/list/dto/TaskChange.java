@@ -0,0 +1,25 @@
+package ru.zyablov.task.list.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Запись ленты изменений. Для удалённой задачи task не заполняется.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskChange {
+    /**
+     * Номер изменения, возрастает на единицу с каждым изменением.
+     */
+    private long seq;
+    private ChangeType type;
+    private Long id;
+    private TaskData task;
+}
@@ -0,0 +1,49 @@
+package ru.zyablov.task.list.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.zyablov.task.list.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в списке задач, упорядоченном по (dueDate, id).
+ * Клиенту передаётся в виде непрозрачной строки.
+ */
+@Data
+@AllArgsConstructor
+public class TaskCursor {
+    private static final String SEPARATOR = "|";
+
+    private LocalDateTime dueDate;
+    private long id;
+
+    /**
+     * Закодировать курсор в строку.
+     *
+     * @return String
+     */
+    public String encode() {
+        var raw = dueDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Раскодировать курсор, полученный от клиента.
+     *
+     * @return TaskCursor
+     */
+    public static TaskCursor decode(String cursor) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var idx = raw.lastIndexOf(SEPARATOR);
+            if (idx < 0) throw new InvalidCursorException("Некорректный курсор: " + cursor);
+            return new TaskCursor(LocalDateTime.parse(raw.substring(0, idx)), Long.parseLong(raw.substring(idx + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Некорректный курсор: " + cursor);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package ru.zyablov.task.list.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,4 +22,14 @@ public class TaskData {
     private String description;
     private LocalDateTime dueDate;
     private boolean completed;
+    /**
+     * Версия задачи, передаётся клиенту в заголовке ETag.
+     */
+    @JsonIgnore
+    private long version;
+    /**
+     * Время последнего изменения по часам БД. Заполняется сервером, значение от клиента игнорируется.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime lastUpd;
 }
@@ -0,0 +1,27 @@
+package ru.zyablov.task.list.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Фильтр списка задач. Незаполненные поля не участвуют в отборе.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskFilter {
+    private Boolean completed;
+    /**
+     * Нижняя граница срока выполнения (включительно).
+     */
+    private LocalDateTime dueFrom;
+    /**
+     * Верхняя граница срока выполнения (не включительно).
+     */
+    private LocalDateTime dueTo;
+}
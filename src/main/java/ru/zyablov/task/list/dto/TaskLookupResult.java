@@ -0,0 +1,26 @@
+package ru.zyablov.task.list.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат получения задач по списку id.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskLookupResult {
+    /**
+     * Найденные задачи в порядке запрошенных id.
+     */
+    private List<TaskData> items;
+    /**
+     * Запрошенные id, задач с которыми нет.
+     */
+    private List<Long> missing;
+}
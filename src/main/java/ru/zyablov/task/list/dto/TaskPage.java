@@ -0,0 +1,23 @@
+package ru.zyablov.task.list.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница списка задач.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPage {
+    private List<TaskData> items;
+    /**
+     * Курсор следующей страницы, null если страница последняя.
+     */
+    private String nextCursor;
+}
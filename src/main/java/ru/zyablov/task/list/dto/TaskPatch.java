@@ -0,0 +1,60 @@
+package ru.zyablov.task.list.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Частичное изменение задачи в формате JSON Merge Patch (RFC 7396).
+ * Для каждого поля запоминается, было ли оно передано, чтобы отличать отсутствующее поле от явного null.
+ */
+@Getter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPatch {
+    private String title;
+    private boolean titleSet;
+    private String description;
+    private boolean descriptionSet;
+    private LocalDateTime dueDate;
+    private boolean dueDateSet;
+    /**
+     * Явный null для completed - ошибка валидации: поле обязательное и удалить его нельзя.
+     */
+    private Boolean completed;
+    private boolean completedSet;
+
+    @JsonIgnore
+    @AssertTrue(message = "completed не должно равняться null")
+    public boolean isCompletedValid() {
+        return !completedSet || completed != null;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+        this.titleSet = true;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+        this.descriptionSet = true;
+    }
+
+    public void setDueDate(LocalDateTime dueDate) {
+        this.dueDate = dueDate;
+        this.dueDateSet = true;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+        this.completedSet = true;
+    }
+}
@@ -0,0 +1,47 @@
+package ru.zyablov.task.list.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.zyablov.task.list.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Позиция в результатах поиска, упорядоченных по (rank desc, id).
+ * Клиенту передаётся в виде непрозрачной строки.
+ */
+@Data
+@AllArgsConstructor
+public class TaskSearchCursor {
+    private static final String SEPARATOR = "|";
+
+    private float rank;
+    private long id;
+
+    /**
+     * Закодировать курсор в строку.
+     *
+     * @return String
+     */
+    public String encode() {
+        var raw = Float.toString(rank) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Раскодировать курсор, полученный от клиента.
+     *
+     * @return TaskSearchCursor
+     */
+    public static TaskSearchCursor decode(String cursor) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var idx = raw.lastIndexOf(SEPARATOR);
+            if (idx < 0) throw new InvalidCursorException("Некорректный курсор: " + cursor);
+            return new TaskSearchCursor(Float.parseFloat(raw.substring(0, idx)), Long.parseLong(raw.substring(idx + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Некорректный курсор: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.zyablov.task.list.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Количество задач по статусу и сроку. Задача просрочена, как только прошло время срока,
+ * так же как у уведомлений о просроченных задачах.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStats {
+    private long total;
+    private long completed;
+    private long open;
+    /**
+     * Незавершённые задачи с уже прошедшим сроком, в том числе сегодняшним.
+     */
+    private long overdue;
+    /**
+     * Незавершённые задачи со сроком сегодня, который ещё не наступил.
+     */
+    private long dueToday;
+    /**
+     * Незавершённые задачи со сроком в ближайшие 7 дней, не считая сегодняшнего.
+     */
+    private long dueNextWeek;
+    private long dueLater;
+}
@@ -0,0 +1,25 @@
+package ru.zyablov.task.list.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Порция синхронизации: изменённые и удалённые задачи и токен для следующего запроса.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSyncPage {
+    private List<TaskData> changed;
+    private List<Long> deleted;
+    private String token;
+    /**
+     * Изменений больше, чем поместилось в порцию: следующий запрос нужно сделать сразу.
+     */
+    private boolean hasMore;
+}
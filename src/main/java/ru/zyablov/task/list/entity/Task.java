@@ -1,11 +1,16 @@
 package ru.zyablov.task.list.entity;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.ColumnResult;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityResult;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.SqlResultSetMapping;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -13,7 +18,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
@@ -25,15 +30,33 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@DynamicUpdate
 @Table(name = "task")
+@SqlResultSetMapping(name = Task.RANKED_MAPPING,
+        entities = @EntityResult(entityClass = Task.class),
+        columns = @ColumnResult(name = "rank", type = Float.class))
 public class Task {
+    /**
+     * Отображение строки "задача и её ранг" для результатов полнотекстового поиска.
+     */
+    public static final String RANKED_MAPPING = "Task.ranked";
+
+    /**
+     * Идентификаторы выделяются из последовательности блоками по 50, что позволяет Hibernate
+     * объединять вставки в пакеты JDBC (с IDENTITY пакетная вставка невозможна).
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_id_seq")
+    @SequenceGenerator(name = "task_id_seq", sequenceName = "task_id_seq", allocationSize = 50)
     private long id;
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime created;
-    @UpdateTimestamp
+    /**
+     * Время изменения выставляет триггер БД task_touch_last_upd, Hibernate его не записывает.
+     * После вставки и изменения значение нужно перечитать ({@code TaskRepository.findVersions}).
+     */
+    @Column(insertable = false, updatable = false)
     private LocalDateTime lastUpd;
     @NotNull(message = "Поле title не должно быть пустым")
     @Size(min = 3, max = 200, message = "Размер title должен находиться в диапазоне от 3 до 200 символов")
@@ -43,4 +66,6 @@ public class Task {
     @NotNull(message = "Поле dueDate не должно быть пустым")
     private LocalDateTime dueDate;
     private boolean completed;
+    @Version
+    private long version;
 }
@@ -0,0 +1,48 @@
+package ru.zyablov.task.list.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import ru.zyablov.task.list.dto.ChangeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сообщение outbox об изменении задачи.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "task_outbox")
+public class TaskOutboxMessage {
+    /**
+     * Выдаётся БД при вставке, без заранее выделенных блоков. Сообщения одной задачи получают id в порядке
+     * изменений (изменение держит блокировку строки задачи до фиксации), сообщения разных задач из параллельных
+     * транзакций могут фиксироваться не в порядке id.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime created;
+    private long taskId;
+    @Enumerated(EnumType.STRING)
+    private ChangeType changeType;
+    /**
+     * Задача в JSON, для удалённой задачи не заполняется.
+     */
+    private String payload;
+}
@@ -0,0 +1,24 @@
+package ru.zyablov.task.list.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Отметка об удалении задачи. Записывается триггером при удалении строки из task.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "task_tombstone")
+public class TaskTombstone {
+    @Id
+    private long taskId;
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,7 @@
+package ru.zyablov.task.list.exception;
+
+public class BatchTooLargeException extends RuntimeException {
+    public BatchTooLargeException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.zyablov.task.list.exception;
+
+public class ChangesExpiredException extends RuntimeException {
+    public ChangesExpiredException(String msg) {
+        super(msg);
+    }
+}
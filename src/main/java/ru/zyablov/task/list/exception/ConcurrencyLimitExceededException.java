@@ -0,0 +1,7 @@
+package ru.zyablov.task.list.exception;
+
+public class ConcurrencyLimitExceededException extends RuntimeException {
+    public ConcurrencyLimitExceededException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.zyablov.task.list.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.zyablov.task.list.exception;
+
+public class TaskArchivedException extends RuntimeException {
+    public TaskArchivedException(String msg) {
+        super(msg);
+    }
+}
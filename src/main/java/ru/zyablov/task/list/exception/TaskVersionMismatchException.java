@@ -0,0 +1,7 @@
+package ru.zyablov.task.list.exception;
+
+public class TaskVersionMismatchException extends Exception {
+    public TaskVersionMismatchException(String msg) {
+        super(msg);
+    }
+}
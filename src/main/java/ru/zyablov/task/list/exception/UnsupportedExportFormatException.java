@@ -0,0 +1,7 @@
+package ru.zyablov.task.list.exception;
+
+public class UnsupportedExportFormatException extends RuntimeException {
+    public UnsupportedExportFormatException(String msg) {
+        super(msg);
+    }
+}
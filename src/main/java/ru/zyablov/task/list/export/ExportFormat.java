@@ -0,0 +1,33 @@
+package ru.zyablov.task.list.export;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.zyablov.task.list.exception.UnsupportedExportFormatException;
+
+import java.util.Locale;
+
+/**
+ * Формат выгрузки задач.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    /**
+     * Получить формат по значению параметра запроса без учёта регистра.
+     *
+     * @return ExportFormat
+     */
+    public static ExportFormat of(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new UnsupportedExportFormatException("Неподдерживаемый формат выгрузки: " + value);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ru.zyablov.task.list.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.zyablov.task.list.dto.TaskData;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Построчная запись задач в поток ответа. Каждая задача сериализуется и пишется сразу,
+ * поэтому объём памяти не зависит от количества выгружаемых задач.
+ */
+public class TaskExportWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] NEW_LINE = "\n".getBytes(StandardCharsets.UTF_8);
+    private static final String CSV_HEADER = "id,title,description,dueDate,completed";
+
+    private final ExportFormat format;
+    private final OutputStream out;
+    private final ObjectMapper objectMapper;
+
+    public TaskExportWriter(ExportFormat format, OutputStream out, ObjectMapper objectMapper) {
+        this.format = format;
+        this.out = new BufferedOutputStream(out, BUFFER_SIZE);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Записать заголовок, если он предусмотрен форматом.
+     */
+    public void writeHeader() throws IOException {
+        if (format == ExportFormat.CSV) {
+            writeLine(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Записать задачу одной строкой.
+     */
+    public void write(TaskData taskData) {
+        try {
+            if (format == ExportFormat.NDJSON) {
+                writeLine(objectMapper.writeValueAsBytes(taskData));
+            } else {
+                writeLine(toCsv(taskData).getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Сбросить буфер в поток ответа.
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeLine(byte[] line) throws IOException {
+        out.write(line);
+        out.write(NEW_LINE);
+    }
+
+    private static String toCsv(TaskData taskData) {
+        return taskData.getId() + ","
+                + escapeCsv(taskData.getTitle()) + ","
+                + escapeCsv(taskData.getDescription()) + ","
+                + (taskData.getDueDate() == null ? "" : taskData.getDueDate()) + ","
+                + taskData.isCompleted();
+    }
+
+    private static String escapeCsv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
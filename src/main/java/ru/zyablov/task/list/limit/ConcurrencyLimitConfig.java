@@ -0,0 +1,41 @@
+package ru.zyablov.task.list.limit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.zyablov.task.list.config.TaskConcurrencyProperties;
+
+/**
+ * Подключает ограничение одновременных запросов к /tasks.
+ * Выгрузка /tasks/export и лента /tasks/changes не ограничиваются: они асинхронные и долгие.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "task.concurrency", name = "enabled", havingValue = "true")
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+    private final ConcurrencyLimitInterceptor interceptor;
+
+    public ConcurrencyLimitConfig(TaskConcurrencyProperties properties, MeterRegistry meterRegistry) {
+        this.interceptor = new ConcurrencyLimitInterceptor(properties);
+        Gauge.builder("task.concurrency.available", interceptor, ConcurrencyLimitInterceptor::availablePermits)
+                .description("Свободные места для запросов к БД")
+                .register(meterRegistry);
+    }
+
+    @Bean
+    public ConcurrencyLimitInterceptor concurrencyLimitInterceptor() {
+        return interceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor)
+                .addPathPatterns("/tasks", "/tasks/**")
+                .excludePathPatterns("/tasks/export", "/tasks/changes");
+    }
+}
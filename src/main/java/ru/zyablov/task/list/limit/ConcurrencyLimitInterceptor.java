@@ -0,0 +1,51 @@
+package ru.zyablov.task.list.limit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.zyablov.task.list.config.TaskConcurrencyProperties;
+import ru.zyablov.task.list.exception.ConcurrencyLimitExceededException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускает к обработчикам не больше maxConcurrent запросов одновременно, остальные ждут
+ * не дольше acquireTimeout. Ожидание идёт на семафоре, а не в пуле соединений Hikari,
+ * поэтому не приводит к ошибкам получения соединения и дёшево для виртуальных потоков.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".PERMIT";
+
+    private final Semaphore semaphore;
+    private final long acquireTimeoutNanos;
+
+    public ConcurrencyLimitInterceptor(TaskConcurrencyProperties properties) {
+        this.semaphore = new Semaphore(properties.getMaxConcurrent(), true);
+        this.acquireTimeoutNanos = properties.getAcquireTimeout().toNanos();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws InterruptedException {
+        if (!semaphore.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+            throw new ConcurrencyLimitExceededException("Сервер перегружен, повторите запрос позже");
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            semaphore.release();
+        }
+    }
+
+    /**
+     * @return int число свободных разрешений
+     */
+    public int availablePermits() {
+        return semaphore.availablePermits();
+    }
+}
@@ -0,0 +1,26 @@
+package ru.zyablov.task.list.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.zyablov.task.list.config.TaskStatementsProperties;
+
+/**
+ * Подключает метрику количества SQL-запросов к запросам /tasks.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RequestMetricsConfig implements WebMvcConfigurer {
+    private final RequestStatementsInterceptor interceptor;
+
+    public RequestMetricsConfig(StatementCounter counter, MeterRegistry meterRegistry, TaskStatementsProperties properties) {
+        this.interceptor = new RequestStatementsInterceptor(counter, meterRegistry, properties);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor).addPathPatterns("/tasks", "/tasks/**");
+    }
+}
@@ -0,0 +1,60 @@
+package ru.zyablov.task.list.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.zyablov.task.list.config.TaskStatementsProperties;
+
+/**
+ * Записывает количество SQL-запросов на HTTP-запрос в метрику task.http.statements
+ * и, если включено, пишет в лог запросы сверх бюджета.
+ * Асинхронные запросы не учитываются: их запросы к БД выполняются в других потоках.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RequestStatementsInterceptor implements AsyncHandlerInterceptor {
+    private static final String STARTED_AT = RequestStatementsInterceptor.class.getName() + ".STARTED_AT";
+
+    private final StatementCounter counter;
+    private final MeterRegistry meterRegistry;
+    private final TaskStatementsProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            request.setAttribute(STARTED_AT, counter.current());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.removeAttribute(STARTED_AT);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(STARTED_AT) instanceof Long startedAt)) return;
+        request.removeAttribute(STARTED_AT);
+        var statements = counter.current() - startedAt;
+        var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        var uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder("task.http.statements")
+                .description("Количество SQL-запросов на HTTP-запрос")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statements);
+        if (properties.isBudgetEnabled() && statements > properties.getBudget()) {
+            log.warn("{} {} выполнил {} SQL-запросов при бюджете {}",
+                    request.getMethod(), request.getRequestURI(), statements, properties.getBudget());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.zyablov.task.list.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Считает выполненные через DataSource SQL-запросы по потокам. Пакет запросов считается одним запросом.
+ * Количество запросов участка кода - разница {@link #current()} до и после него.
+ */
+public class StatementCounter implements QueryExecutionListener {
+    private final ThreadLocal<long[]> executed = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        executed.get()[0]++;
+    }
+
+    /**
+     * Получить количество запросов, выполненных текущим потоком.
+     *
+     * @return long
+     */
+    public long current() {
+        return executed.get()[0];
+    }
+}
@@ -0,0 +1,38 @@
+package ru.zyablov.task.list.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.zyablov.task.list.entity.TaskOutboxMessage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Дописывает сообщения outbox в локальный файл, по одному JSON на строку.
+ */
+public class FileTaskOutboxSink implements TaskOutboxSink {
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileTaskOutboxSink(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void send(List<TaskOutboxMessage> messages) {
+        try (var writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (var message : messages) {
+                writer.write(objectMapper.writeValueAsString(message));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ru.zyablov.task.list.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.zyablov.task.list.entity.TaskOutboxMessage;
+
+import java.util.List;
+
+/**
+ * Пишет сообщения outbox в лог приложения.
+ */
+@Slf4j
+public class LoggingTaskOutboxSink implements TaskOutboxSink {
+    @Override
+    public void send(List<TaskOutboxMessage> messages) {
+        messages.forEach(message -> log.info("outbox #{}: {} задачи {} {}",
+                message.getId(), message.getChangeType(), message.getTaskId(), message.getPayload()));
+    }
+}
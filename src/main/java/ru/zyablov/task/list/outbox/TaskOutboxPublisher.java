@@ -0,0 +1,56 @@
+package ru.zyablov.task.list.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.zyablov.task.list.config.TaskOutboxProperties;
+import ru.zyablov.task.list.repository.TaskOutboxRepository;
+
+/**
+ * Фоновая отправка outbox. Каждая пачка блокируется через FOR UPDATE SKIP LOCKED, отправляется
+ * и удаляется в одной транзакции, поэтому несколько экземпляров приложения разбирают outbox
+ * параллельно, не отправляя одно сообщение дважды.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "task.outbox", name = "publisher-enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class TaskOutboxPublisher {
+    private final TaskOutboxRepository outboxRepository;
+    private final TaskOutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskOutboxProperties properties;
+
+    @Scheduled(fixedDelayString = "${task.outbox.poll-interval-ms:1000}")
+    public void publishPending() {
+        var batchSize = Math.max(properties.getBatchSize(), 1);
+        // Пока пачки полные, outbox не пуст: разбираем его, не дожидаясь следующего опроса.
+        while (publishBatch(batchSize) == batchSize) {
+            log.debug("Отправлена полная пачка outbox, продолжаем");
+        }
+    }
+
+    /**
+     * Отправить одну пачку сообщений.
+     *
+     * @return int количество отправленных сообщений
+     */
+    int publishBatch(int batchSize) {
+        try {
+            Integer sent = transactionTemplate.execute(status -> {
+                var messages = outboxRepository.lockBatch(batchSize);
+                if (messages.isEmpty()) return 0;
+                sink.send(messages);
+                outboxRepository.deleteAllInBatch(messages);
+                return messages.size();
+            });
+            return sent == null ? 0 : sent;
+        } catch (RuntimeException e) {
+            log.warn("Не удалось отправить сообщения outbox, повторим при следующем опросе", e);
+            return 0;
+        }
+    }
+}
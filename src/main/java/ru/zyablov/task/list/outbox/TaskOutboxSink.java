@@ -0,0 +1,17 @@
+package ru.zyablov.task.list.outbox;
+
+import ru.zyablov.task.list.entity.TaskOutboxMessage;
+
+import java.util.List;
+
+/**
+ * Получатель сообщений outbox. Вызывается в транзакции, удерживающей сообщения:
+ * при исключении сообщения остаются в outbox и будут отправлены повторно,
+ * поэтому получатель должен спокойно относиться к повторам (доставка как минимум один раз).
+ */
+public interface TaskOutboxSink {
+    /**
+     * Отправить сообщения в порядке их id.
+     */
+    void send(List<TaskOutboxMessage> messages);
+}
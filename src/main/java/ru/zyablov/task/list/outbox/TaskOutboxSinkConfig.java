@@ -0,0 +1,28 @@
+package ru.zyablov.task.list.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.zyablov.task.list.config.TaskOutboxProperties;
+
+/**
+ * Получатели outbox по умолчанию. Используются, только если в контексте нет своего TaskOutboxSink.
+ */
+@Configuration
+public class TaskOutboxSinkConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(TaskOutboxSink.class)
+    @ConditionalOnProperty(prefix = "task.outbox", name = "sink", havingValue = "file")
+    public TaskOutboxSink fileTaskOutboxSink(TaskOutboxProperties properties, ObjectMapper objectMapper) {
+        return new FileTaskOutboxSink(properties.getFile(), objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(TaskOutboxSink.class)
+    public TaskOutboxSink loggingTaskOutboxSink() {
+        return new LoggingTaskOutboxSink();
+    }
+}
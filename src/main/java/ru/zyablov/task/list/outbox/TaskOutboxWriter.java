@@ -0,0 +1,77 @@
+package ru.zyablov.task.list.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.zyablov.task.list.changes.TaskChangedEvent;
+import ru.zyablov.task.list.entity.TaskOutboxMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Записывает изменения задач в outbox перед фиксацией транзакции, в которой они сделаны.
+ * Если запись не удалась, откатывается и само изменение.
+ * <p>
+ * Сообщения транзакции копятся и пишутся одним пакетным INSERT, id выдаёт БД при вставке. Изменение задачи
+ * держит блокировку её строки до фиксации, поэтому сообщения одной задачи получают id в порядке изменений.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskOutboxWriter {
+    private static final String INSERT = "INSERT INTO task_outbox (created, task_id, change_type, payload) VALUES (localtimestamp, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Добавить изменение к сообщениям текущей транзакции. Вне транзакции (реактивный режим пишет outbox сам)
+     * событие пропускается.
+     */
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) throws JsonProcessingException {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        pending().add(TaskOutboxMessage.builder()
+                .taskId(event.id())
+                .changeType(event.type())
+                .payload(event.task() == null ? null : objectMapper.writeValueAsString(event.task()))
+                .build());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TaskOutboxMessage> pending() {
+        var pending = (List<TaskOutboxMessage>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            var messages = new ArrayList<TaskOutboxMessage>();
+            TransactionSynchronizationManager.bindResource(this, messages);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(messages);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(TaskOutboxWriter.this);
+                }
+            });
+            pending = messages;
+        }
+        return pending;
+    }
+
+    private void write(List<TaskOutboxMessage> messages) {
+        jdbcTemplate.batchUpdate(INSERT, messages, messages.size(), (statement, message) -> {
+            statement.setLong(1, message.getTaskId());
+            statement.setString(2, message.getChangeType().name());
+            statement.setString(3, message.getPayload());
+        });
+    }
+}
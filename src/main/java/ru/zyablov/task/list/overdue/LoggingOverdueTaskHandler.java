@@ -0,0 +1,17 @@
+package ru.zyablov.task.list.overdue;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.zyablov.task.list.dto.TaskData;
+
+import java.util.List;
+
+/**
+ * Пишет просроченные задачи в лог приложения.
+ */
+@Slf4j
+public class LoggingOverdueTaskHandler implements OverdueTaskHandler {
+    @Override
+    public void onOverdue(List<TaskData> tasks) {
+        tasks.forEach(task -> log.info("Задача {} просрочена, срок {}", task.getId(), task.getDueDate()));
+    }
+}
@@ -0,0 +1,14 @@
+package ru.zyablov.task.list.overdue;
+
+import ru.zyablov.task.list.dto.TaskData;
+
+import java.util.List;
+
+/**
+ * Обработчик просроченных задач. Вызывается в транзакции, в которой задачи отмечены:
+ * при исключении отметка откатывается, и задачи пачки передаются снова по одной. Задача, на которой
+ * обработчик завершился ошибкой task.overdue.max-attempts раз, отмечается без уведомления.
+ */
+public interface OverdueTaskHandler {
+    void onOverdue(List<TaskData> tasks);
+}
@@ -0,0 +1,18 @@
+package ru.zyablov.task.list.overdue;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Обработчик просроченных задач по умолчанию. Используется, только если в контексте нет своего.
+ */
+@Configuration
+public class OverdueTaskHandlerConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(OverdueTaskHandler.class)
+    public OverdueTaskHandler loggingOverdueTaskHandler() {
+        return new LoggingOverdueTaskHandler();
+    }
+}
@@ -0,0 +1,168 @@
+package ru.zyablov.task.list.overdue;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.zyablov.task.list.config.TaskOverdueProperties;
+import ru.zyablov.task.list.repository.TaskRepository;
+import ru.zyablov.task.list.utils.ConverterUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Поиск просроченных задач. Сроки просматриваются от самого раннего ожидающего уведомления
+ * интервалами шириной task.overdue.bucket. Каждая пачка отмечается через FOR UPDATE SKIP LOCKED
+ * и передаётся обработчику в той же транзакции, поэтому экземпляры приложения делят работу
+ * без общей блокировки, а уведомление не теряется при сбое обработчика.
+ * <p>
+ * Если обработчик пачки завершился ошибкой, её задачи передаются по одной, каждая в своей транзакции:
+ * одна сбойная задача не задерживает остальные. Ошибки по задаче считаются в overdue_attempts,
+ * после task.overdue.max-attempts задача отмечается без уведомления и больше не забирается первой.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "task.overdue", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OverdueTaskScheduler {
+    private final TaskRepository taskRepository;
+    private final OverdueTaskHandler handler;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskOverdueProperties properties;
+    private final Counter notified;
+    private final Counter failed;
+    private final Counter abandoned;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public OverdueTaskScheduler(TaskRepository taskRepository,
+                                OverdueTaskHandler handler,
+                                TransactionTemplate transactionTemplate,
+                                TaskOverdueProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.handler = handler;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.notified = Counter.builder("task.overdue.notified")
+                .description("Количество обработанных просроченных задач")
+                .register(meterRegistry);
+        this.failed = Counter.builder("task.overdue.failed")
+                .description("Количество пачек и отдельных задач, обработка которых завершилась ошибкой")
+                .register(meterRegistry);
+        this.abandoned = Counter.builder("task.overdue.abandoned")
+                .description("Количество задач, отмеченных без уведомления после task.overdue.max-attempts ошибок")
+                .register(meterRegistry);
+        Gauge.builder("task.overdue.lag", lagSeconds, AtomicLong::get)
+                .description("Насколько самая старая необработанная просроченная задача отстаёт от текущего времени")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${task.overdue.poll-interval-ms:10000}")
+    public void processOverdue() {
+        var now = LocalDateTime.now();
+        var earliest = taskRepository.findEarliestPendingDueDate().orElse(null);
+        updateLag(earliest, now);
+        if (earliest == null || !earliest.isBefore(now)) return;
+
+        var batchSize = Math.max(properties.getBatchSize(), 1);
+        var bucket = properties.getBucket();
+        var batchesLeft = Math.max(properties.getMaxBatchesPerRun(), 1);
+        for (var from = earliest; from.isBefore(now) && batchesLeft > 0; from = from.plus(bucket)) {
+            var to = from.plus(bucket).isBefore(now) ? from.plus(bucket) : now;
+            int claimed;
+            // Если в пачке были ошибки, переходим к следующему интервалу: иначе сбойная задача
+            // забиралась бы снова в этом же проходе.
+            do {
+                claimed = processBatch(from, to, batchSize);
+                batchesLeft--;
+            } while (claimed == batchSize && batchesLeft > 0);
+            if (claimed < 0) break;
+        }
+        updateLag(taskRepository.findEarliestPendingDueDate().orElse(null), LocalDateTime.now());
+    }
+
+    /**
+     * Отметить и обработать одну пачку задач со сроком в [from, to).
+     * Если обработчик пачки завершился ошибкой, её задачи обрабатываются по одной.
+     *
+     * @return int количество обработанных задач или -1, если задачи не удалось отметить
+     */
+    int processBatch(LocalDateTime from, LocalDateTime to, int batchSize) {
+        var claimed = new ArrayList<Long>();
+        try {
+            Integer processed = transactionTemplate.execute(status -> {
+                var tasks = taskRepository.claimOverdue(from, to, batchSize);
+                if (tasks.isEmpty()) return 0;
+                tasks.forEach(task -> claimed.add(task.getId()));
+                handler.onOverdue(tasks.stream().map(ConverterUtils::domainToApi).toList());
+                return tasks.size();
+            });
+            var count = processed == null ? 0 : processed;
+            notified.increment(count);
+            return count;
+        } catch (RuntimeException e) {
+            failed.increment();
+            if (claimed.isEmpty()) {
+                log.warn("Не удалось отметить просроченные задачи, повторим при следующем проходе", e);
+                return -1;
+            }
+            log.warn("Не удалось обработать пачку просроченных задач, обрабатываем задачи по одной", e);
+            return processEach(claimed);
+        }
+    }
+
+    /**
+     * Обработать задачи по одной, каждую в своей транзакции.
+     *
+     * @return int количество обработанных задач
+     */
+    private int processEach(List<Long> ids) {
+        var processed = 0;
+        for (var id : ids) {
+            try {
+                var claimed = transactionTemplate.execute(status -> taskRepository.claimOverdueById(id)
+                        .map(task -> {
+                            handler.onOverdue(List.of(ConverterUtils.domainToApi(task)));
+                            return true;
+                        })
+                        .orElse(false));
+                if (Boolean.TRUE.equals(claimed)) {
+                    notified.increment();
+                    processed++;
+                }
+            } catch (RuntimeException e) {
+                failed.increment();
+                recordFailure(id, e);
+            }
+        }
+        return processed;
+    }
+
+    private void recordFailure(long id, RuntimeException cause) {
+        try {
+            var gaveUp = transactionTemplate.execute(status ->
+                    taskRepository.recordOverdueFailure(id, Math.max(properties.getMaxAttempts(), 1)).orElse(false));
+            if (Boolean.TRUE.equals(gaveUp)) {
+                abandoned.increment();
+                log.error("Просроченная задача {} отмечена без уведомления после {} ошибок обработчика",
+                        id, properties.getMaxAttempts(), cause);
+            } else {
+                log.warn("Не удалось обработать просроченную задачу {}, повторим при следующем проходе", id, cause);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Не удалось учесть ошибку обработки просроченной задачи {}", id, e);
+        }
+    }
+
+    private void updateLag(LocalDateTime earliest, LocalDateTime now) {
+        lagSeconds.set(earliest == null || !earliest.isBefore(now) ? 0 : Duration.between(earliest, now).toSeconds());
+    }
+}
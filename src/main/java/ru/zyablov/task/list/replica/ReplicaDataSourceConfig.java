@@ -0,0 +1,73 @@
+package ru.zyablov.task.list.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import ru.zyablov.task.list.config.TaskReplicaProperties;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+
+/**
+ * Чтение с реплик. Транзакции только на чтение (@Transactional(readOnly = true) и методы чтения
+ * репозиториев) получают соединение с реплики, остальные - с основной БД. Соединение берётся
+ * при первом запросе, когда признак readOnly транзакции уже известен.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "task.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean
+    public ReplicaDataSources replicaDataSources(DataSourceProperties dataSourceProperties,
+                                                 TaskReplicaProperties properties,
+                                                 Environment environment,
+                                                 MeterRegistry meterRegistry) {
+        var binder = Binder.get(environment);
+        var primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(HIKARI_PREFIX, Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        var replicas = new ArrayList<ReplicaDataSources.Replica>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            var config = properties.getReplicas().get(i);
+            var name = "replica-" + (i + 1);
+            var replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(config.getUrl())
+                    .username(config.getUsername() != null ? config.getUsername() : dataSourceProperties.determineUsername())
+                    .password(config.getPassword() != null ? config.getPassword() : dataSourceProperties.determinePassword())
+                    .build();
+            binder.bind(HIKARI_PREFIX, Bindable.ofInstance(replica));
+            replica.setPoolName(name);
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new ReplicaDataSources.Replica(name, replica));
+        }
+        return new ReplicaDataSources(primary, replicas);
+    }
+
+    @Bean
+    public DataSource dataSource(ReplicaDataSources replicaDataSources) {
+        var dataSource = new LazyConnectionDataSourceProxy(replicaDataSources.getPrimary());
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(replicaDataSources));
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaDataSources replicaDataSources,
+                                               TaskReplicaProperties properties,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replicaDataSources, properties, meterRegistry);
+    }
+}
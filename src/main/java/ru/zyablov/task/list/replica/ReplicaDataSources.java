@@ -0,0 +1,82 @@
+package ru.zyablov.task.list.replica;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пулы соединений основной БД и реплик и текущее состояние реплик.
+ */
+@Slf4j
+public class ReplicaDataSources implements AutoCloseable {
+    @Getter
+    private final DataSource primary;
+    @Getter
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSources(DataSource primary, List<Replica> replicas) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+    }
+
+    /**
+     * Выбрать следующую доступную реплику по кругу.
+     *
+     * @return Replica или null, если доступных реплик нет
+     */
+    public Replica nextAvailable() {
+        var size = replicas.size();
+        var start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            var replica = replicas.get((start + i) % size);
+            if (replica.isAvailable()) return replica;
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (var replica : replicas) {
+            if (replica.getDataSource() instanceof AutoCloseable closeable) closeable.close();
+        }
+        if (primary instanceof AutoCloseable closeable) closeable.close();
+    }
+
+    /**
+     * Реплика. До первой проверки отставания считается недоступной.
+     */
+    @Getter
+    public static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile double lagSeconds = Double.NaN;
+        private volatile boolean available;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        /**
+         * Запомнить результат проверки отставания.
+         */
+        public void update(double lagSeconds, boolean available) {
+            this.lagSeconds = lagSeconds;
+            if (this.available != available) {
+                log.info("Реплика {} {}, отставание {} с", name, available ? "доступна" : "недоступна", lagSeconds);
+            }
+            this.available = available;
+        }
+
+        /**
+         * Исключить реплику из чтения до следующей успешной проверки.
+         */
+        public void markUnavailable() {
+            update(Double.NaN, false);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.zyablov.task.list.replica;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import ru.zyablov.task.list.config.TaskReplicaProperties;
+import ru.zyablov.task.list.replica.ReplicaDataSources.Replica;
+
+import java.sql.SQLException;
+
+/**
+ * Проверяет отставание реплик. Реплика используется для чтения, пока отставание не больше task.replica.max-lag.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    /**
+     * Отставание в секундах: 0, если реплика применила всё полученное, иначе время с последней применённой транзакции.
+     */
+    static final String LAG_QUERY = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE coalesce(extract(epoch FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END""";
+
+    private final ReplicaDataSources dataSources;
+    private final double maxLagSeconds;
+
+    public ReplicaLagMonitor(ReplicaDataSources dataSources, TaskReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.dataSources = dataSources;
+        this.maxLagSeconds = properties.getMaxLag().toMillis() / 1000.0;
+        for (var replica : dataSources.getReplicas()) {
+            Gauge.builder("task.replica.lag", replica, Replica::getLagSeconds)
+                    .description("Отставание реплики от основной БД")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+            Gauge.builder("task.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+                    .description("Используется ли реплика для чтения")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${task.replica.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        for (var replica : dataSources.getReplicas()) {
+            try (var connection = replica.getDataSource().getConnection();
+                 var statement = connection.createStatement();
+                 var resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                var lag = resultSet.getDouble(1);
+                replica.update(lag, lag <= maxLagSeconds);
+            } catch (SQLException e) {
+                if (replica.isAvailable()) {
+                    log.warn("Не удалось проверить отставание реплики {}", replica.getName(), e);
+                }
+                replica.markUnavailable();
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.zyablov.task.list.replica;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Источник соединений для транзакций только на чтение: реплики по кругу,
+ * основная БД - если доступных реплик нет или реплика не выдала соединение.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+    private final ReplicaDataSources dataSources;
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        var replica = dataSources.nextAvailable();
+        if (replica == null) {
+            return dataSources.getPrimary().getConnection();
+        }
+        try {
+            return replica.getDataSource().getConnection();
+        } catch (SQLException e) {
+            log.warn("Не удалось получить соединение с репликой {}, читаем из основной БД", replica.getName(), e);
+            replica.markUnavailable();
+            return dataSources.getPrimary().getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Соединения выдаются только с настроенными учётными данными");
+    }
+}
@@ -0,0 +1,9 @@
+package ru.zyablov.task.list.repository;
+
+import ru.zyablov.task.list.entity.Task;
+
+/**
+ * Задача, найденная полнотекстовым поиском, и её ранг.
+ */
+public record RankedTask(Task task, float rank) {
+}
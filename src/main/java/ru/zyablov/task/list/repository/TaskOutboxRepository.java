@@ -0,0 +1,21 @@
+package ru.zyablov.task.list.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.zyablov.task.list.entity.TaskOutboxMessage;
+
+import java.util.List;
+
+@Repository
+public interface TaskOutboxRepository extends JpaRepository<TaskOutboxMessage, Long> {
+    /**
+     * Заблокировать самые старые сообщения до конца транзакции. Сообщения, уже заблокированные
+     * другим экземпляром приложения, пропускаются, поэтому экземпляры отправляют разные сообщения.
+     *
+     * @return List<TaskOutboxMessage>
+     */
+    @Query(value = "SELECT * FROM task_outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<TaskOutboxMessage> lockBatch(@Param("limit") int limit);
+}
@@ -1,9 +1,274 @@
 package ru.zyablov.task.list.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.zyablov.task.list.entity.Task;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskSearchRepository {
+    /**
+     * Получить id существующих задач из переданных.
+     *
+     * @return List<Long>
+     */
+    @Query("select t.id from Task t where t.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Получить версию задачи.
+     *
+     * @return Optional<Long>
+     */
+    @Query("select t.version from Task t where t.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
+
+    /**
+     * Обновить задачу одним запросом без предварительного чтения. Время изменения выставляет триггер.
+     *
+     * @return Optional<TaskVersionView> новые версия и время изменения задачи, пусто если задачи нет
+     */
+    @Query(value = """
+            UPDATE task
+            SET title = :title, description = :description, due_date = :dueDate, completed = :completed,
+                version = version + 1
+            WHERE id = :id
+            RETURNING id AS "id", version AS "version", last_upd AS "lastUpd\"""", nativeQuery = true)
+    Optional<TaskVersionView> update(@Param("id") long id,
+                                     @Param("title") String title,
+                                     @Param("description") String description,
+                                     @Param("dueDate") LocalDateTime dueDate,
+                                     @Param("completed") boolean completed);
+
+    /**
+     * Обновить задачу одним запросом, если её версия совпадает с ожидаемой.
+     *
+     * @return Optional<TaskVersionView> новые версия и время изменения задачи, пусто если задачи нет или версия отличается
+     */
+    @Query(value = """
+            UPDATE task
+            SET title = :title, description = :description, due_date = :dueDate, completed = :completed,
+                version = version + 1
+            WHERE id = :id AND version = :version
+            RETURNING id AS "id", version AS "version", last_upd AS "lastUpd\"""", nativeQuery = true)
+    Optional<TaskVersionView> updateIfVersion(@Param("id") long id,
+                                              @Param("version") long version,
+                                              @Param("title") String title,
+                                              @Param("description") String description,
+                                              @Param("dueDate") LocalDateTime dueDate,
+                                              @Param("completed") boolean completed);
+
+    /**
+     * Получить версии и время изменения задач, выставленное триггером, одним запросом.
+     *
+     * @return List<TaskVersionView>
+     */
+    @Query("select t.id as id, t.version as version, t.lastUpd as lastUpd from Task t where t.id in :ids")
+    List<TaskVersionView> findVersions(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Удалить задачу одним запросом.
+     *
+     * @return int количество удалённых задач
+     */
+    @Modifying
+    @Query("delete from Task t where t.id = :id")
+    int removeById(@Param("id") long id);
+
+    /**
+     * Получить задачи, изменённые после позиции (lastUpd, id), в порядке изменения, в том числе из архива.
+     * Перенос в архив сохраняет lastUpd и выполняется одним запросом, поэтому задача попадает в выборку ровно один раз.
+     *
+     * @return List<Task>
+     */
+    @Query(value = """
+            (SELECT id, created, last_upd, title, description, due_date, completed, version FROM task
+             WHERE (last_upd, id) > (:lastUpd, :id)
+             ORDER BY last_upd, id
+             LIMIT :limit)
+            UNION ALL
+            (SELECT id, created, last_upd, title, description, due_date, completed, version FROM task_archive
+             WHERE (last_upd, id) > (:lastUpd, :id)
+             ORDER BY last_upd, id
+             LIMIT :limit)
+            ORDER BY last_upd, id
+            LIMIT :limit""", nativeQuery = true)
+    List<Task> findChangedAfter(@Param("lastUpd") LocalDateTime lastUpd,
+                                @Param("id") long id,
+                                @Param("limit") int limit);
+
+    /**
+     * Получить самый ранний срок среди незавершённых задач, по которым ещё не было уведомления.
+     *
+     * @return Optional<LocalDateTime>
+     */
+    @Query(value = "SELECT min(due_date) FROM task WHERE NOT completed AND overdue_notified_at IS NULL", nativeQuery = true)
+    Optional<LocalDateTime> findEarliestPendingDueDate();
+
+    /**
+     * Отметить как уведомлённые до limit просроченных задач со сроком в [from, to).
+     * Задачи, заблокированные другим экземпляром приложения, пропускаются.
+     *
+     * @return List<Task> отмеченные задачи
+     */
+    @Query(value = """
+            UPDATE task SET overdue_notified_at = localtimestamp
+            WHERE id IN (
+                SELECT id FROM task
+                WHERE NOT completed AND overdue_notified_at IS NULL AND due_date >= :from AND due_date < :to
+                ORDER BY due_date
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED)
+            RETURNING *""", nativeQuery = true)
+    List<Task> claimOverdue(@Param("from") LocalDateTime from,
+                            @Param("to") LocalDateTime to,
+                            @Param("limit") int limit);
+
+    /**
+     * Отметить как уведомлённую одну просроченную задачу, если она ещё ждёт уведомления
+     * и не заблокирована другим экземпляром приложения.
+     *
+     * @return Optional<Task> отмеченная задача
+     */
+    @Query(value = """
+            UPDATE task SET overdue_notified_at = localtimestamp
+            WHERE id IN (
+                SELECT id FROM task
+                WHERE id = :id AND NOT completed AND overdue_notified_at IS NULL
+                FOR UPDATE SKIP LOCKED)
+            RETURNING *""", nativeQuery = true)
+    Optional<Task> claimOverdueById(@Param("id") long id);
+
+    /**
+     * Учесть ошибку обработчика просроченной задачи. После maxAttempts ошибок задача отмечается без уведомления.
+     *
+     * @return Optional<Boolean> true, если задача отмечена без уведомления; пустой, если она уже не ждёт уведомления
+     */
+    @Query(value = """
+            UPDATE task SET overdue_attempts = overdue_attempts + 1,
+                            overdue_notified_at = CASE WHEN overdue_attempts + 1 >= :maxAttempts THEN localtimestamp END
+            WHERE id = :id AND overdue_notified_at IS NULL
+            RETURNING overdue_notified_at IS NOT NULL""", nativeQuery = true)
+    Optional<Boolean> recordOverdueFailure(@Param("id") long id, @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Получить количество задач по статусу и сроку из счётчиков task_stats и ещё не перенесённых в них изменений.
+     * Счётчики ведутся по дням, поэтому сегодняшние незавершённые задачи с уже прошедшим сроком считаются
+     * по task через task_open_due_date_idx и переносятся из dueToday в overdue. Эта часть читает диапазон
+     * индекса [today, now), то есть стоит O(открытых задач со сроком сегодня до now), а не O(1).
+     *
+     * @param today   сегодняшний день
+     * @param weekEnd последний день ближайшей недели
+     * @param now     текущий момент
+     * @return TaskStatsView
+     */
+    @Query(value = """
+            WITH passed_today AS (SELECT count(*) AS cnt FROM task WHERE NOT completed AND due_date >= :today AND due_date < :now)
+            SELECT coalesce(sum(cnt), 0)::bigint AS "total",
+                   coalesce(sum(cnt) FILTER (WHERE completed), 0)::bigint AS "completed",
+                   (coalesce(sum(cnt) FILTER (WHERE NOT completed AND due_day < :today), 0) + (SELECT cnt FROM passed_today))::bigint AS "overdue",
+                   (coalesce(sum(cnt) FILTER (WHERE NOT completed AND due_day = :today), 0) - (SELECT cnt FROM passed_today))::bigint AS "dueToday",
+                   coalesce(sum(cnt) FILTER (WHERE NOT completed AND due_day > :today AND due_day <= :weekEnd), 0)::bigint AS "dueNextWeek",
+                   coalesce(sum(cnt) FILTER (WHERE NOT completed AND due_day > :weekEnd), 0)::bigint AS "dueLater"
+            FROM (SELECT completed, due_day, task_count AS cnt FROM task_stats
+                  UNION ALL
+                  SELECT completed, due_day, delta FROM task_stats_delta) s""", nativeQuery = true)
+    TaskStatsView findStats(@Param("today") LocalDate today, @Param("weekEnd") LocalDate weekEnd, @Param("now") LocalDateTime now);
+
+    /**
+     * Перенести накопленные изменения из task_stats_delta в task_stats.
+     *
+     * @return int количество обновлённых счётчиков
+     */
+    @Modifying
+    @Query(value = """
+            WITH moved AS (DELETE FROM task_stats_delta RETURNING completed, due_day, delta)
+            INSERT INTO task_stats (completed, due_day, task_count)
+            SELECT completed, due_day, sum(delta) FROM moved GROUP BY completed, due_day
+            ON CONFLICT (completed, due_day) DO UPDATE SET task_count = task_stats.task_count + EXCLUDED.task_count""",
+            nativeQuery = true)
+    int foldStatsDeltas();
+
+    /**
+     * Удалить обнулившиеся счётчики.
+     *
+     * @return int количество удалённых счётчиков
+     */
+    @Modifying
+    @Query(value = "DELETE FROM task_stats WHERE task_count = 0", nativeQuery = true)
+    int deleteEmptyStats();
+
+    /**
+     * Получить задачи из архива.
+     *
+     * @return List<Task>
+     */
+    @Query(value = """
+            SELECT id, created, last_upd, title, description, due_date, completed, version
+            FROM task_archive
+            WHERE id IN (:ids)""", nativeQuery = true)
+    List<Task> findArchivedByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Проверить, есть ли задача в архиве.
+     *
+     * @return boolean
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM task_archive WHERE id = :id)", nativeQuery = true)
+    boolean existsArchivedById(@Param("id") long id);
+
+    /**
+     * Удалить задачу из архива.
+     *
+     * @return int количество удалённых задач
+     */
+    @Modifying
+    @Query(value = "DELETE FROM task_archive WHERE id = :id", nativeQuery = true)
+    int removeArchivedById(@Param("id") long id);
+
+    /**
+     * Удалить задачи из архива.
+     *
+     * @return List<Long> id удалённых задач
+     */
+    @Query(value = "DELETE FROM task_archive WHERE id IN (:ids) RETURNING id", nativeQuery = true)
+    List<Long> removeArchivedByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Отметить текущую транзакцию как перенос в архив: удаление из task в ней не считается удалением задачи
+     * (триггеры не пишут отметку об удалении и не меняют счётчики статистики).
+     */
+    @Query(value = "SELECT set_config('task.archiving', 'on', true)", nativeQuery = true)
+    String markArchiving();
+
+    /**
+     * Перенести в архив до limit завершённых задач, не изменявшихся с before.
+     * Задачи, заблокированные другой транзакцией, пропускаются.
+     *
+     * @return int количество перенесённых задач
+     */
+    @Modifying
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM task
+                WHERE id IN (
+                    SELECT id FROM task
+                    WHERE completed AND last_upd < :before
+                    ORDER BY last_upd, id
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED)
+                RETURNING id, created, last_upd, title, description, due_date, completed, version)
+            INSERT INTO task_archive (id, created, last_upd, title, description, due_date, completed, version, archived_at)
+            SELECT id, created, last_upd, title, description, due_date, completed, version, localtimestamp FROM moved""",
+            nativeQuery = true)
+    int archiveCompleted(@Param("before") LocalDateTime before, @Param("limit") int limit);
 }
@@ -0,0 +1,18 @@
+package ru.zyablov.task.list.repository;
+
+import ru.zyablov.task.list.dto.TaskSearchCursor;
+
+import java.util.List;
+
+/**
+ * Полнотекстовый поиск задач.
+ */
+public interface TaskSearchRepository {
+    /**
+     * Найти задачи по запросу в синтаксисе websearch_to_tsquery, упорядоченные по убыванию ранга и по id.
+     *
+     * @param after позиция, после которой начинается страница, или null для первой страницы
+     * @return List<RankedTask>
+     */
+    List<RankedTask> search(String query, TaskSearchCursor after, int limit);
+}
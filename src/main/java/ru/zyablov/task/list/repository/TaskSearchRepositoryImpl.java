@@ -0,0 +1,43 @@
+package ru.zyablov.task.list.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import ru.zyablov.task.list.dto.TaskSearchCursor;
+import ru.zyablov.task.list.entity.Task;
+
+import java.util.List;
+
+/**
+ * Реализация поиска по столбцу search_vector и индексу task_search_idx.
+ * Ранг вычисляется только для найденных через GIN-индекс строк.
+ */
+public class TaskSearchRepositoryImpl implements TaskSearchRepository {
+    private static final String SEARCH = """
+            SELECT * FROM (
+                SELECT t.id, t.created, t.last_upd, t.title, t.description, t.due_date, t.completed, t.version,
+                       ts_rank_cd(t.search_vector, q) AS rank
+                FROM task t, websearch_to_tsquery('russian', :query) q
+                WHERE t.search_vector @@ q
+            ) r
+            %s
+            ORDER BY r.rank DESC, r.id
+            LIMIT :limit""";
+    private static final String AFTER = "WHERE r.rank < CAST(:rank AS real) OR (r.rank = CAST(:rank AS real) AND r.id > :id)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<RankedTask> search(String query, TaskSearchCursor after, int limit) {
+        var sql = SEARCH.formatted(after == null ? "" : AFTER);
+        var nativeQuery = entityManager.createNativeQuery(sql, Task.RANKED_MAPPING)
+                .setParameter("query", query)
+                .setParameter("limit", limit);
+        if (after != null) {
+            nativeQuery.setParameter("rank", after.getRank()).setParameter("id", after.getId());
+        }
+        List<Object[]> rows = nativeQuery.getResultList();
+        return rows.stream().map(row -> new RankedTask((Task) row[0], (Float) row[1])).toList();
+    }
+}
@@ -0,0 +1,67 @@
+package ru.zyablov.task.list.repository;
+
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.zyablov.task.list.dto.TaskCursor;
+import ru.zyablov.task.list.dto.TaskFilter;
+import ru.zyablov.task.list.entity.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Условия отбора задач для постраничного (keyset) чтения.
+ */
+public class TaskSpecifications {
+    /**
+     * Порядок, по которому строится курсор. Поддерживается индексом (due_date, id).
+     */
+    public static final Sort KEYSET_SORT = Sort.by("dueDate", "id");
+
+    private TaskSpecifications() {
+    }
+
+    /**
+     * Отбор по фильтру. В запрос попадают только заполненные условия.
+     *
+     * @return Specification<Task>
+     */
+    public static Specification<Task> matches(TaskFilter filter) {
+        return (root, query, cb) -> {
+            var predicates = new ArrayList<Predicate>();
+            if (filter != null) {
+                if (filter.getCompleted() != null) {
+                    predicates.add(cb.equal(root.get("completed"), filter.getCompleted()));
+                }
+                if (filter.getDueFrom() != null) {
+                    predicates.add(cb.greaterThanOrEqualTo(root.get("dueDate"), filter.getDueFrom()));
+                }
+                if (filter.getDueTo() != null) {
+                    predicates.add(cb.lessThan(root.get("dueDate"), filter.getDueTo()));
+                }
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Задачи, идущие строго после курсора в порядке {@link #KEYSET_SORT}.
+     * Условие due_date >= ? избыточно, но позволяет начать сканирование индекса сразу с позиции курсора.
+     *
+     * @return Specification<Task>
+     */
+    public static Specification<Task> after(TaskCursor cursor) {
+        return (root, query, cb) -> {
+            var dueDate = root.<LocalDateTime>get("dueDate");
+            var id = root.<Long>get("id");
+            return cb.and(
+                    cb.greaterThanOrEqualTo(dueDate, cursor.getDueDate()),
+                    cb.or(
+                            cb.greaterThan(dueDate, cursor.getDueDate()),
+                            cb.greaterThan(id, cursor.getId())
+                    )
+            );
+        };
+    }
+}
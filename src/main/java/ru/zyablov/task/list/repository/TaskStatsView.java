@@ -0,0 +1,18 @@
+package ru.zyablov.task.list.repository;
+
+/**
+ * Строка с количеством задач по статусу и сроку.
+ */
+public interface TaskStatsView {
+    Long getTotal();
+
+    Long getCompleted();
+
+    Long getOverdue();
+
+    Long getDueToday();
+
+    Long getDueNextWeek();
+
+    Long getDueLater();
+}
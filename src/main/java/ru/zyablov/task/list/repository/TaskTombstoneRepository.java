@@ -0,0 +1,37 @@
+package ru.zyablov.task.list.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.zyablov.task.list.entity.TaskTombstone;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+    /**
+     * Получить удаления после позиции (deletedAt, taskId) в порядке удаления.
+     *
+     * @return List<TaskTombstone>
+     */
+    @Query(value = """
+            SELECT * FROM task_tombstone
+            WHERE (deleted_at, task_id) > (:deletedAt, :taskId)
+            ORDER BY deleted_at, task_id
+            LIMIT :limit""", nativeQuery = true)
+    List<TaskTombstone> findAfter(@Param("deletedAt") LocalDateTime deletedAt,
+                                  @Param("taskId") long taskId,
+                                  @Param("limit") int limit);
+
+    /**
+     * Удалить отметки об удалении старше заданного времени.
+     *
+     * @return int количество удалённых отметок
+     */
+    @Modifying
+    @Query("delete from TaskTombstone t where t.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,14 @@
+package ru.zyablov.task.list.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Версия и время изменения задачи после записи.
+ */
+public interface TaskVersionView {
+    long getId();
+
+    long getVersion();
+
+    LocalDateTime getLastUpd();
+}
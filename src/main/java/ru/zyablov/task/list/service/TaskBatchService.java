@@ -0,0 +1,30 @@
+package ru.zyablov.task.list.service;
+
+import ru.zyablov.task.list.dto.TaskBatchResult;
+import ru.zyablov.task.list.dto.TaskData;
+
+import java.util.List;
+
+public interface TaskBatchService {
+    /**
+     * Создать задачи.
+     *
+     * @return List<TaskBatchResult> результат по каждой задаче в порядке запроса
+     */
+    List<TaskBatchResult> createAll(List<TaskData> tasks);
+
+    /**
+     * Обновить задачи целиком, id берётся из каждой задачи. Повтор id в одной части запроса не обновляется
+     * и возвращается как INVALID.
+     *
+     * @return List<TaskBatchResult> результат по каждой задаче в порядке запроса
+     */
+    List<TaskBatchResult> updateAll(List<TaskData> tasks);
+
+    /**
+     * Удалить задачи.
+     *
+     * @return List<TaskBatchResult> результат по каждому id в порядке запроса
+     */
+    List<TaskBatchResult> deleteAll(List<Long> ids);
+}
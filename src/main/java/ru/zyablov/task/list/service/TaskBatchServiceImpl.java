@@ -0,0 +1,231 @@
+package ru.zyablov.task.list.service;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.zyablov.task.list.changes.TaskChangedEvent;
+import ru.zyablov.task.list.config.TaskBatchProperties;
+import ru.zyablov.task.list.dto.BatchStatus;
+import ru.zyablov.task.list.dto.TaskBatchResult;
+import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.entity.Task;
+import ru.zyablov.task.list.exception.BatchTooLargeException;
+import ru.zyablov.task.list.repository.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static ru.zyablov.task.list.utils.ConverterUtils.apiToDomain;
+import static ru.zyablov.task.list.utils.ConverterUtils.domainToApi;
+
+/**
+ * Пакетные операции. Запрос делится на части по {@link TaskBatchProperties#getChunkSize()},
+ * каждая часть сохраняется в отдельной транзакции пакетами JDBC. Ошибка в одной части
+ * не откатывает уже сохранённые части. События об изменениях публикуются внутри транзакции части
+ * и доставляются только после её фиксации.
+ */
+@Slf4j
+@Service
+@Timed(value = "task.service", histogram = true)
+@RequiredArgsConstructor
+public class TaskBatchServiceImpl implements TaskBatchService {
+    private final TaskRepository taskRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskBatchProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public List<TaskBatchResult> createAll(List<TaskData> tasks) {
+        return processInChunks(tasks, this::createChunk);
+    }
+
+    @Override
+    public List<TaskBatchResult> updateAll(List<TaskData> tasks) {
+        return processInChunks(tasks, this::updateChunk);
+    }
+
+    @Override
+    public List<TaskBatchResult> deleteAll(List<Long> ids) {
+        return processInChunks(ids, this::deleteChunk);
+    }
+
+    private <T> List<TaskBatchResult> processInChunks(List<T> items, ChunkProcessor<T> processor) {
+        if (items.size() > properties.getMaxSize()) {
+            throw new BatchTooLargeException("Количество элементов в запросе не должно превышать " + properties.getMaxSize());
+        }
+        var results = new ArrayList<TaskBatchResult>(items.size());
+        var chunkSize = Math.max(properties.getChunkSize(), 1);
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            var chunk = items.subList(from, Math.min(from + chunkSize, items.size()));
+            results.addAll(Arrays.asList(processor.process(from, chunk)));
+        }
+        return results;
+    }
+
+    private TaskBatchResult[] createChunk(int offset, List<TaskData> chunk) {
+        var results = new TaskBatchResult[chunk.size()];
+        var valid = validate(offset, chunk, results);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                taskRepository.saveAll(new ArrayList<>(valid.values()));
+                entityManager.flush();
+                readWrittenVersions(valid.values());
+                entityManager.clear();
+                valid.forEach((i, task) -> {
+                    var created = domainToApi(task);
+                    results[i] = result(offset + i, task.getId(), BatchStatus.CREATED).task(created).build();
+                    eventPublisher.publishEvent(TaskChangedEvent.created(created));
+                });
+            });
+        } catch (RuntimeException e) {
+            failed(offset, valid.keySet(), results, e, i -> null);
+        }
+        return results;
+    }
+
+    private TaskBatchResult[] updateChunk(int offset, List<TaskData> chunk) {
+        var results = new TaskBatchResult[chunk.size()];
+        var valid = validate(offset, chunk, results);
+        rejectRepeatedIds(offset, chunk, valid, results);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                var ids = valid.keySet().stream().map(i -> chunk.get(i).getId()).collect(Collectors.toSet());
+                var existing = taskRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Task::getId, Function.identity()));
+                valid.forEach((i, changes) -> {
+                    var id = chunk.get(i).getId();
+                    var task = existing.get(id);
+                    if (task == null) {
+                        results[i] = result(offset + i, id, BatchStatus.NOT_FOUND).build();
+                        return;
+                    }
+                    task.setTitle(changes.getTitle());
+                    task.setDescription(changes.getDescription());
+                    task.setDueDate(changes.getDueDate());
+                    task.setCompleted(changes.isCompleted());
+                });
+                entityManager.flush();
+                readWrittenVersions(existing.values());
+                // Результат собираем после flush, чтобы в нём была уже увеличенная версия и время изменения.
+                valid.keySet().forEach(i -> {
+                    var task = existing.get(chunk.get(i).getId());
+                    if (task == null) return;
+                    var updated = domainToApi(task);
+                    results[i] = result(offset + i, task.getId(), BatchStatus.UPDATED).task(updated).build();
+                    eventPublisher.publishEvent(TaskChangedEvent.updated(updated));
+                });
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            failed(offset, valid.keySet(), results, e, i -> chunk.get(i).getId());
+        }
+        return results;
+    }
+
+    private TaskBatchResult[] deleteChunk(int offset, List<Long> chunk) {
+        var results = new TaskBatchResult[chunk.size()];
+        try {
+            Set<Long> existing = transactionTemplate.execute(status -> {
+                var hot = new HashSet<>(taskRepository.findExistingIds(chunk));
+                taskRepository.deleteAllByIdInBatch(hot);
+                var ids = new HashSet<>(hot);
+                var notFound = chunk.stream().filter(id -> !hot.contains(id)).toList();
+                if (!notFound.isEmpty()) {
+                    ids.addAll(taskRepository.removeArchivedByIds(notFound));
+                }
+                ids.forEach(id -> eventPublisher.publishEvent(TaskChangedEvent.deleted(id)));
+                return ids;
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                var id = chunk.get(i);
+                var status = existing != null && existing.contains(id) ? BatchStatus.DELETED : BatchStatus.NOT_FOUND;
+                results[i] = result(offset + i, id, status).build();
+            }
+        } catch (RuntimeException e) {
+            var positions = IntStream.range(0, chunk.size()).boxed().collect(Collectors.toSet());
+            failed(offset, positions, results, e, chunk::get);
+        }
+        return results;
+    }
+
+    /**
+     * Исключить повторы id: иначе каждая копия получила бы UPDATED, а сохранилась бы только последняя.
+     */
+    private static void rejectRepeatedIds(int offset, List<TaskData> chunk, Map<Integer, Task> valid, TaskBatchResult[] results) {
+        var seen = new HashSet<Long>();
+        for (var it = valid.keySet().iterator(); it.hasNext(); ) {
+            var i = it.next();
+            var id = chunk.get(i).getId();
+            if (seen.add(id)) continue;
+            it.remove();
+            results[i] = result(offset + i, id, BatchStatus.INVALID)
+                    .errors(List.of("id " + id + " повторяется в запросе"))
+                    .build();
+        }
+    }
+
+    /**
+     * Перечитать одним запросом время изменения, выставленное триггером БД.
+     */
+    private void readWrittenVersions(Collection<Task> tasks) {
+        if (tasks.isEmpty()) return;
+        var byId = tasks.stream().collect(Collectors.toMap(Task::getId, Function.identity()));
+        taskRepository.findVersions(byId.keySet()).forEach(written -> byId.get(written.getId()).setLastUpd(written.getLastUpd()));
+    }
+
+    /**
+     * Проверить задачи ограничениями сущности. Некорректные сразу попадают в результат.
+     *
+     * @return Map<Integer, Task> корректные задачи по позиции в части запроса
+     */
+    private Map<Integer, Task> validate(int offset, List<TaskData> chunk, TaskBatchResult[] results) {
+        var valid = new LinkedHashMap<Integer, Task>();
+        for (int i = 0; i < chunk.size(); i++) {
+            var task = apiToDomain(chunk.get(i));
+            var violations = validator.validate(task);
+            if (violations.isEmpty()) {
+                valid.put(i, task);
+            } else {
+                results[i] = result(offset + i, null, BatchStatus.INVALID)
+                        .errors(violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.toList()))
+                        .build();
+            }
+        }
+        return valid;
+    }
+
+    private static void failed(int offset, Set<Integer> positions, TaskBatchResult[] results, RuntimeException e,
+                               IntFunction<Long> idByPosition) {
+        log.warn("Ошибка при обработке части пакета с позиции {}", offset, e);
+        positions.forEach(i -> results[i] = result(offset + i, idByPosition.apply(i), BatchStatus.FAILED)
+                .errors(List.of(String.valueOf(e.getMessage())))
+                .build());
+    }
+
+    private static TaskBatchResult.TaskBatchResultBuilder result(int index, Long id, BatchStatus status) {
+        return TaskBatchResult.builder().index(index).id(id).status(status);
+    }
+
+    @FunctionalInterface
+    private interface ChunkProcessor<T> {
+        TaskBatchResult[] process(int offset, List<T> chunk);
+    }
+}
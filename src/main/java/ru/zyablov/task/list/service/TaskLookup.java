@@ -0,0 +1,173 @@
+package ru.zyablov.task.list.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import ru.zyablov.task.list.config.TaskLookupProperties;
+import ru.zyablov.task.list.entity.Task;
+import ru.zyablov.task.list.repository.TaskRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Чтение задач по id с объединением одновременных запросов. Запросы одного id ждут одно чтение,
+ * запросы разных id, пришедшие в течение task.lookup.window, читаются одним WHERE id IN (...).
+ * Окно выжидается, только пока идёт другое чтение: одиночный запрос читается сразу, а под нагрузкой
+ * пачка набирается, пока БД отвечает на предыдущую. Чтение выполняет поток первого запроса пачки. Запрос присоединяется только к ещё не начатому
+ * чтению, поэтому результат не старше самого запроса: изменение, зафиксированное до него, будет видно.
+ */
+@Component
+public class TaskLookup {
+    private final TaskRepository taskRepository;
+    private final TaskLookupProperties properties;
+    /**
+     * ReentrantLock, а не synchronized: ожидание окна не должно закреплять виртуальный поток за потоком-носителем.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchFull = lock.newCondition();
+    /**
+     * Ожидающие чтения запросы по id, доступ под lock.
+     */
+    private Map<Long, CompletableFuture<Optional<Task>>> pending = new HashMap<>();
+    /**
+     * Количество выполняющихся чтений, доступ под lock.
+     */
+    private int loading;
+    private final Counter requests;
+    private final Counter coalesced;
+    private final Counter queries;
+    private final DistributionSummary batchSize;
+
+    public TaskLookup(TaskRepository taskRepository, TaskLookupProperties properties, MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.properties = properties;
+        this.requests = Counter.builder("task.lookup.requests")
+                .description("Количество запросов задачи по id")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("task.lookup.coalesced")
+                .description("Количество запросов, присоединившихся к ожидающему запросу того же id")
+                .register(meterRegistry);
+        this.queries = Counter.builder("task.lookup.queries")
+                .description("Количество чтений задач из БД")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("task.lookup.batch.size")
+                .description("Количество id в одном чтении")
+                .register(meterRegistry);
+        Gauge.builder("task.lookup.coalescing.ratio", this, TaskLookup::coalescingRatio)
+                .description("Среднее количество запросов задачи по id на одно чтение из БД")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Получить задачу по id, в том числе из архива.
+     *
+     * @return Optional<Task> пустой, если задачи нет
+     */
+    public Optional<Task> findById(long id) {
+        requests.increment();
+        if (!properties.isCoalescingEnabled()) {
+            return Optional.ofNullable(load(List.of(id)).get(id));
+        }
+        CompletableFuture<Optional<Task>> future;
+        boolean leader = false;
+        lock.lock();
+        try {
+            future = pending.get(id);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                pending.put(id, future);
+                leader = pending.size() == 1;
+                if (pending.size() >= properties.getMaxBatchSize()) {
+                    batchFull.signalAll();
+                }
+            } else {
+                coalesced.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (leader) {
+            dispatch();
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Получить задачи по id одним запросом, отсутствующие в task ищутся в архиве.
+     * Вызывается в транзакции вызывающего, поэтому оба чтения идут в одну БД (основную или реплику).
+     *
+     * @return Map<Long, Task> найденные задачи по id
+     */
+    public Map<Long, Task> load(Collection<Long> ids) {
+        queries.increment();
+        batchSize.record(ids.size());
+        var found = taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        var missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            taskRepository.findArchivedByIds(missing).forEach(task -> found.put(task.getId(), task));
+        }
+        return found;
+    }
+
+    /**
+     * Если идёт другое чтение, дождаться окончания окна или набора полной пачки.
+     * Забрать ожидающие запросы и прочитать их задачи.
+     */
+    private void dispatch() {
+        Map<Long, CompletableFuture<Optional<Task>>> batch;
+        lock.lock();
+        try {
+            if (loading > 0) {
+                var remaining = properties.getWindow().toNanos();
+                while (pending.size() < properties.getMaxBatchSize() && remaining > 0) {
+                    try {
+                        remaining = batchFull.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+            batch = pending;
+            pending = new HashMap<>();
+            loading++;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            var found = load(batch.keySet());
+            batch.forEach((id, future) -> future.complete(Optional.ofNullable(found.get(id))));
+        } catch (RuntimeException | Error e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        } finally {
+            lock.lock();
+            try {
+                loading--;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private double coalescingRatio() {
+        var count = queries.count();
+        return count == 0 ? 0 : requests.count() / count;
+    }
+}
@@ -1,17 +1,46 @@
 package ru.zyablov.task.list.service;
 
 import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.dto.TaskFilter;
+import ru.zyablov.task.list.dto.TaskLookupResult;
+import ru.zyablov.task.list.dto.TaskPage;
+import ru.zyablov.task.list.dto.TaskPatch;
 import ru.zyablov.task.list.exception.NoSuchTaskException;
+import ru.zyablov.task.list.exception.TaskVersionMismatchException;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TaskService {
     /**
-     * Получить все задачи.
+     * Получить страницу задач, упорядоченных по сроку выполнения и id.
      *
-     * @return List<TaskData>
+     * @param filter фильтр, может быть null
+     * @param cursor курсор из предыдущей страницы, null для первой страницы
+     * @param limit  размер страницы, ограничивается сверху
+     * @return TaskPage
      */
-    List<TaskData> findAll();
+    TaskPage findAll(TaskFilter filter, String cursor, int limit);
+
+    /**
+     * Найти задачи по словам из названия и описания. Задачи упорядочены по убыванию релевантности.
+     *
+     * @param query  поисковый запрос: слова, "фразы в кавычках", or, -исключение
+     * @param cursor курсор из предыдущей страницы, null для первой страницы
+     * @param limit  размер страницы, ограничивается сверху
+     * @return TaskPage
+     */
+    TaskPage search(String query, String cursor, int limit);
+
+    /**
+     * Последовательно передать все задачи, подходящие под фильтр, в обработчик.
+     * Задачи читаются курсором и не накапливаются в памяти.
+     *
+     * @param filter   фильтр, может быть null
+     * @param consumer обработчик, вызывается для каждой задачи в порядке (dueDate, id)
+     */
+    void export(TaskFilter filter, Consumer<TaskData> consumer);
 
     /**
      * Получить задачу по id.
@@ -20,6 +49,20 @@ public interface TaskService {
      */
     TaskData findById(Long id) throws NoSuchTaskException;
 
+    /**
+     * Получить задачи по списку id одним запросом. Отсутствующие задачи перечисляются в missing.
+     *
+     * @return TaskLookupResult
+     */
+    TaskLookupResult findAllById(List<Long> ids);
+
+    /**
+     * Получить версию задачи без чтения остальных полей.
+     *
+     * @return Optional<Long>
+     */
+    Optional<Long> findVersionById(Long id);
+
     /**
      * Создать задачу.
      *
@@ -30,9 +73,18 @@ public interface TaskService {
     /**
      * Обновить задачу.
      *
+     * @param expectedVersion ожидаемая версия задачи, null если проверять не нужно
+     * @return TaskData
+     */
+    TaskData update(Long id, TaskData taskData, Long expectedVersion) throws NoSuchTaskException, TaskVersionMismatchException;
+
+    /**
+     * Частично обновить задачу. Изменяются только переданные поля.
+     *
+     * @param expectedVersion ожидаемая версия задачи, null если проверять не нужно
      * @return TaskData
      */
-    TaskData update(Long id, TaskData taskData) throws NoSuchTaskException;
+    TaskData patch(Long id, TaskPatch patch, Long expectedVersion) throws NoSuchTaskException, TaskVersionMismatchException;
 
     /**
      * Удалить задачу.
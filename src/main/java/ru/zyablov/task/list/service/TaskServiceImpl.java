@@ -1,55 +1,222 @@
 package ru.zyablov.task.list.service;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.zyablov.task.list.changes.TaskChangedEvent;
+import ru.zyablov.task.list.dto.TaskCursor;
 import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.dto.TaskFilter;
+import ru.zyablov.task.list.dto.TaskLookupResult;
+import ru.zyablov.task.list.dto.TaskPage;
+import ru.zyablov.task.list.dto.TaskPatch;
+import ru.zyablov.task.list.dto.TaskSearchCursor;
+import ru.zyablov.task.list.entity.Task;
+import ru.zyablov.task.list.exception.BatchTooLargeException;
 import ru.zyablov.task.list.exception.NoSuchTaskException;
+import ru.zyablov.task.list.exception.TaskArchivedException;
+import ru.zyablov.task.list.exception.TaskVersionMismatchException;
 import ru.zyablov.task.list.repository.TaskRepository;
 import ru.zyablov.task.list.utils.ConverterUtils;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static ru.zyablov.task.list.repository.TaskSpecifications.KEYSET_SORT;
+import static ru.zyablov.task.list.repository.TaskSpecifications.after;
+import static ru.zyablov.task.list.repository.TaskSpecifications.matches;
 import static ru.zyablov.task.list.utils.ConverterUtils.apiToDomain;
+import static ru.zyablov.task.list.utils.ConverterUtils.applyPatch;
 import static ru.zyablov.task.list.utils.ConverterUtils.domainToApi;
 
 @Service
+@Timed(value = "task.service", histogram = true)
 @RequiredArgsConstructor
 public class TaskServiceImpl implements TaskService {
+    static final int MAX_PAGE_SIZE = 500;
+
     private final TaskRepository taskRepository;
+    private final TaskLookup taskLookup;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPage findAll(TaskFilter filter, String cursor, int limit) {
+        var pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        var spec = matches(filter);
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(after(TaskCursor.decode(cursor)));
+        }
+        // Читаем на одну запись больше, чтобы узнать, есть ли следующая страница, без count-запроса.
+        List<Task> tasks = taskRepository.findBy(spec, query -> query.sortBy(KEYSET_SORT).limit(pageSize + 1).all());
+        String nextCursor = null;
+        if (tasks.size() > pageSize) {
+            tasks = tasks.subList(0, pageSize);
+            var last = tasks.get(pageSize - 1);
+            nextCursor = new TaskCursor(last.getDueDate(), last.getId()).encode();
+        }
+        return TaskPage.builder()
+                .items(tasks.stream().map(ConverterUtils::domainToApi).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPage search(String query, String cursor, int limit) {
+        if (query == null || query.isBlank()) {
+            return TaskPage.builder().items(List.of()).build();
+        }
+        var pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        var after = cursor == null || cursor.isBlank() ? null : TaskSearchCursor.decode(cursor);
+        var found = taskRepository.search(query, after, pageSize + 1);
+        String nextCursor = null;
+        if (found.size() > pageSize) {
+            found = found.subList(0, pageSize);
+            var last = found.get(pageSize - 1);
+            nextCursor = new TaskSearchCursor(last.rank(), last.task().getId()).encode();
+        }
+        return TaskPage.builder()
+                .items(found.stream().map(ranked -> domainToApi(ranked.task())).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
 
     @Override
-    public List<TaskData> findAll() {
-        return taskRepository.findAll().stream().map(ConverterUtils::domainToApi).collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public void export(TaskFilter filter, Consumer<TaskData> consumer) {
+        try (var tasks = taskRepository.findBy(matches(filter), query -> query.sortBy(KEYSET_SORT).stream())) {
+            tasks.forEach(task -> {
+                consumer.accept(domainToApi(task));
+                // Не даём контексту персистентности разрастаться на всю таблицу.
+                entityManager.detach(task);
+            });
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TaskData findById(Long id) throws NoSuchTaskException {
-        return domainToApi(taskRepository.findById(id).orElseThrow(() -> new NoSuchTaskException("Не найден задача с id = " + id)));
+        return domainToApi(taskLookup.findById(id).orElseThrow(() -> new NoSuchTaskException("Не найден задача с id = " + id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskLookupResult findAllById(List<Long> ids) {
+        if (ids.size() > MAX_PAGE_SIZE) {
+            throw new BatchTooLargeException("Количество id в запросе не должно превышать " + MAX_PAGE_SIZE);
+        }
+        var distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.isEmpty()) {
+            return TaskLookupResult.builder().items(List.of()).missing(List.of()).build();
+        }
+        var found = taskLookup.load(distinct);
+        return TaskLookupResult.builder()
+                .items(distinct.stream().filter(found::containsKey).map(id -> domainToApi(found.get(id))).collect(Collectors.toList()))
+                .missing(distinct.stream().filter(id -> !found.containsKey(id)).collect(Collectors.toList()))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersionById(Long id) {
+        return taskRepository.findVersionById(id);
     }
 
     @Override
     @Transactional
     public TaskData create(TaskData taskData) {
-        var newTask = taskRepository.save(apiToDomain(taskData));
-        return domainToApi(newTask);
+        // С id из последовательности вставка откладывается до flush, сбрасываем сразу,
+        // чтобы ошибки валидации и ограничений БД возникали внутри вызова.
+        var task = taskRepository.saveAndFlush(apiToDomain(taskData));
+        readWrittenVersion(task);
+        var newTask = domainToApi(task);
+        eventPublisher.publishEvent(TaskChangedEvent.created(newTask));
+        return newTask;
     }
 
     @Override
     @Transactional
-    public TaskData update(Long id, TaskData taskData) throws NoSuchTaskException {
-        taskRepository.findById(id).orElseThrow(() -> new NoSuchTaskException("Не найден задача с id = " + id));
+    public TaskData update(Long id, TaskData taskData, Long expectedVersion) throws NoSuchTaskException, TaskVersionMismatchException {
         var newTask = apiToDomain(taskData);
+        // Запрос update минует жизненный цикл сущности, поэтому ограничения проверяем сами.
+        var violations = validator.validate(newTask);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        var written = expectedVersion == null
+                ? taskRepository.update(id, newTask.getTitle(), newTask.getDescription(), newTask.getDueDate(), newTask.isCompleted())
+                : taskRepository.updateIfVersion(id, expectedVersion, newTask.getTitle(), newTask.getDescription(), newTask.getDueDate(), newTask.isCompleted());
+        if (written.isEmpty()) {
+            if (expectedVersion != null && taskRepository.existsById(id)) {
+                throw new TaskVersionMismatchException("Задача с id = " + id + " была изменена");
+            }
+            throw notFoundOrArchived(id);
+        }
         newTask.setId(id);
-        var resultTask = taskRepository.save(newTask);
-        return domainToApi(resultTask);
+        newTask.setVersion(written.get().getVersion());
+        newTask.setLastUpd(written.get().getLastUpd());
+        var updated = domainToApi(newTask);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(updated));
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public TaskData patch(Long id, TaskPatch patch, Long expectedVersion) throws NoSuchTaskException, TaskVersionMismatchException {
+        var violations = validator.validate(patch);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        var task = taskRepository.findById(id).orElseThrow(() -> notFoundOrArchived(id));
+        if (expectedVersion != null && expectedVersion != task.getVersion()) {
+            throw new TaskVersionMismatchException("Задача с id = " + id + " была изменена");
+        }
+        applyPatch(patch, task);
+        // Благодаря @DynamicUpdate в UPDATE попадут только изменённые столбцы.
+        taskRepository.flush();
+        readWrittenVersion(task);
+        var patched = domainToApi(task);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(patched));
+        return patched;
     }
 
     @Override
     @Transactional
     public void delete(Long id) {
-        taskRepository.deleteById(id);
+        // Событие нужно только если задача действительно была удалена.
+        if (taskRepository.removeById(id) > 0 || taskRepository.removeArchivedById(id) > 0) {
+            eventPublisher.publishEvent(TaskChangedEvent.deleted(id));
+        }
+    }
+
+    /**
+     * Задачи нет в task. Архивные задачи доступны только для чтения и удаления, для них изменение отклоняется
+     * с TaskArchivedException, а не с "не найдена": GET той же задачи её отдаёт.
+     *
+     * @return NoSuchTaskException
+     */
+    private NoSuchTaskException notFoundOrArchived(long id) {
+        if (taskRepository.existsArchivedById(id)) {
+            throw new TaskArchivedException("Задача с id = " + id + " перенесена в архив и доступна только для чтения и удаления");
+        }
+        return new NoSuchTaskException("Не найден задача с id = " + id);
+    }
+
+    /**
+     * Перечитать время изменения, выставленное триггером БД, чтобы ответ совпадал с тем, что отдаст синхронизация.
+     */
+    private void readWrittenVersion(Task task) {
+        taskRepository.findVersions(List.of(task.getId())).forEach(written -> task.setLastUpd(written.getLastUpd()));
     }
 }
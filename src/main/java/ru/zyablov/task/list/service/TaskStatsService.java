@@ -0,0 +1,17 @@
+package ru.zyablov.task.list.service;
+
+import ru.zyablov.task.list.dto.TaskStats;
+
+public interface TaskStatsService {
+    /**
+     * Получить количество задач по статусу и сроку.
+     *
+     * @return TaskStats
+     */
+    TaskStats getStats();
+
+    /**
+     * Перенести накопленные изменения счётчиков в основную таблицу.
+     */
+    void compact();
+}
@@ -0,0 +1,54 @@
+package ru.zyablov.task.list.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.zyablov.task.list.dto.TaskStats;
+import ru.zyablov.task.list.repository.TaskRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Статистика по счётчикам, которые триггеры БД обновляют при любом изменении задач, в том числе
+ * пакетном и из native-запросов. Стоимость запроса зависит от числа дней со сроками задач
+ * и ещё не перенесённых изменений, а не от количества задач, плюс диапазон индекса по открытым задачам
+ * со сроком сегодня до текущего момента (их счётчик дня не разделяет на просроченные и нет).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskStatsServiceImpl implements TaskStatsService {
+    static final int NEXT_WEEK_DAYS = 7;
+
+    private final TaskRepository taskRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskStats getStats() {
+        var now = LocalDateTime.now();
+        var today = now.toLocalDate();
+        var view = taskRepository.findStats(today, today.plusDays(NEXT_WEEK_DAYS), now);
+        return TaskStats.builder()
+                .total(view.getTotal())
+                .completed(view.getCompleted())
+                .open(view.getTotal() - view.getCompleted())
+                .overdue(view.getOverdue())
+                .dueToday(view.getDueToday())
+                .dueNextWeek(view.getDueNextWeek())
+                .dueLater(view.getDueLater())
+                .build();
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${task.stats.compact-interval-ms:10000}")
+    public void compact() {
+        var folded = taskRepository.foldStatsDeltas();
+        if (folded > 0) {
+            log.debug("Обновлено {} счётчиков задач", folded);
+            taskRepository.deleteEmptyStats();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.zyablov.task.list.service;
+
+import ru.zyablov.task.list.dto.TaskSyncPage;
+
+public interface TaskSyncService {
+    /**
+     * Получить изменения после токена. Без токена возвращаются все задачи.
+     *
+     * @return TaskSyncPage
+     */
+    TaskSyncPage sync(String token, int limit);
+
+    /**
+     * Удалить отметки об удалении старше срока хранения.
+     */
+    void purgeTombstones();
+}
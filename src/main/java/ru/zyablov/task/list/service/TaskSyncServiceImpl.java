@@ -0,0 +1,99 @@
+package ru.zyablov.task.list.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.zyablov.task.list.config.TaskSyncProperties;
+import ru.zyablov.task.list.dto.SyncToken;
+import ru.zyablov.task.list.dto.TaskSyncPage;
+import ru.zyablov.task.list.entity.Task;
+import ru.zyablov.task.list.entity.TaskTombstone;
+import ru.zyablov.task.list.exception.ChangesExpiredException;
+import ru.zyablov.task.list.repository.TaskRepository;
+import ru.zyablov.task.list.repository.TaskTombstoneRepository;
+import ru.zyablov.task.list.utils.ConverterUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Синхронизация по времени изменения. Изменённые задачи и удаления читаются по индексам
+ * (last_upd, id) и (deleted_at, task_id) от позиции из токена, поэтому стоимость запроса
+ * зависит от количества изменений, а не от размера таблицы.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskSyncServiceImpl implements TaskSyncService {
+    static final int MAX_PAGE_SIZE = 1000;
+    static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository tombstoneRepository;
+    private final TaskSyncProperties properties;
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskSyncPage sync(String token, int limit) {
+        var pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        var now = LocalDateTime.now();
+        SyncToken position;
+        if (token == null || token.isBlank()) {
+            // Клиенту без данных удаления до начала синхронизации не нужны.
+            position = new SyncToken(BEGINNING, 0, now.minus(properties.getOverlap()), 0);
+        } else {
+            position = SyncToken.decode(token);
+            if (position.getDeletedAt().isBefore(now.minus(properties.getTombstoneRetention()))) {
+                throw new ChangesExpiredException("Токен синхронизации устарел, нужна полная синхронизация");
+            }
+        }
+
+        // Читаем на одну запись больше, чтобы узнать, есть ли продолжение, без count-запроса.
+        List<Task> changed = taskRepository.findChangedAfter(position.getUpdatedAt(), position.getUpdatedId(), pageSize + 1);
+        List<TaskTombstone> deleted = tombstoneRepository.findAfter(position.getDeletedAt(), position.getDeletedId(), pageSize + 1);
+        var moreChanged = changed.size() > pageSize;
+        var moreDeleted = deleted.size() > pageSize;
+        if (moreChanged) changed = changed.subList(0, pageSize);
+        if (moreDeleted) deleted = deleted.subList(0, pageSize);
+
+        // Когда изменения (удаления) прочитаны до конца, позиция ставится не позже now - overlap: строки новее
+        // могут ещё появиться из транзакций, зафиксированных с опозданием. Если последняя прочитанная строка
+        // старше этой границы, позиция остаётся точно на ней, и следующий запрос без новых изменений пуст.
+        var horizon = now.minus(properties.getOverlap());
+        var next = new SyncToken(position.getUpdatedAt(), position.getUpdatedId(), position.getDeletedAt(), position.getDeletedId());
+        if (!changed.isEmpty()) {
+            var last = changed.get(changed.size() - 1);
+            var exact = moreChanged || last.getLastUpd().isBefore(horizon);
+            next.setUpdatedAt(exact ? last.getLastUpd() : horizon);
+            next.setUpdatedId(exact ? last.getId() : 0);
+        }
+        if (!deleted.isEmpty()) {
+            var last = deleted.get(deleted.size() - 1);
+            var exact = moreDeleted || last.getDeletedAt().isBefore(horizon);
+            next.setDeletedAt(exact ? last.getDeletedAt() : horizon);
+            next.setDeletedId(exact ? last.getTaskId() : 0);
+        } else if (position.getDeletedAt().isBefore(horizon)) {
+            // Удалений нет: сдвигаем позицию, иначе без удалений токен со временем считался бы устаревшим.
+            next.setDeletedAt(horizon);
+            next.setDeletedId(0);
+        }
+        return TaskSyncPage.builder()
+                .changed(changed.stream().map(ConverterUtils::domainToApi).toList())
+                .deleted(deleted.stream().map(TaskTombstone::getTaskId).toList())
+                .token(next.encode())
+                .hasMore(moreChanged || moreDeleted)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${task.sync.purge-interval-ms:3600000}")
+    public void purgeTombstones() {
+        var purged = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(properties.getTombstoneRetention()));
+        if (purged > 0) {
+            log.info("Удалено {} устаревших отметок об удалении задач", purged);
+        }
+    }
+}
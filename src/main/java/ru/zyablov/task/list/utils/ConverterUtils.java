@@ -1,6 +1,7 @@
 package ru.zyablov.task.list.utils;
 
 import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.dto.TaskPatch;
 import ru.zyablov.task.list.entity.Task;
 
 public class ConverterUtils {
@@ -20,6 +21,8 @@ public class ConverterUtils {
                 .description(task.getDescription())
                 .dueDate(task.getDueDate())
                 .completed(task.isCompleted())
+                .version(task.getVersion())
+                .lastUpd(task.getLastUpd())
                 .build();
     }
 
@@ -37,4 +40,14 @@ public class ConverterUtils {
                 .completed(taskData.isCompleted())
                 .build();
     }
+
+    /**
+     * Применить к задаче только переданные в патче поля. Патч должен быть проверен валидатором.
+     */
+    public static void applyPatch(TaskPatch patch, Task task) {
+        if (patch.isTitleSet()) task.setTitle(patch.getTitle());
+        if (patch.isDescriptionSet()) task.setDescription(patch.getDescription());
+        if (patch.isDueDateSet()) task.setDueDate(patch.getDueDate());
+        if (patch.isCompletedSet()) task.setCompleted(patch.getCompleted());
+    }
 }
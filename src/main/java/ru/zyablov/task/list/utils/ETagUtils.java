@@ -0,0 +1,51 @@
+package ru.zyablov.task.list.utils;
+
+/**
+ * Версия задачи в заголовках ETag, If-None-Match и If-Match.
+ */
+public class ETagUtils {
+    private ETagUtils() {
+    }
+
+    /**
+     * Сформировать ETag по версии задачи.
+     *
+     * @return String
+     */
+    public static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Проверить, есть ли версия среди значений If-None-Match. Слабые ETag сравниваются как сильные.
+     *
+     * @return boolean
+     */
+    public static boolean etagMatches(String header, long version) {
+        var expected = etag(version);
+        for (var value : header.split(",")) {
+            var tag = value.trim();
+            if (tag.equals("*")) return true;
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(expected)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Получить ожидаемую версию из If-Match. Для отсутствующего заголовка и * проверка не нужна.
+     * Нераспознанное значение не совпадает ни с одной версией.
+     *
+     * @return Long null, если версию проверять не нужно
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+        var tag = ifMatch.trim();
+        if (tag.startsWith("W/")) tag = tag.substring(2);
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+}
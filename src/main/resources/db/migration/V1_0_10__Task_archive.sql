@@ -0,0 +1,68 @@
+-- Архив завершённых задач. Строки переносятся из task фоновой задачей и доступны только для чтения и удаления.
+CREATE TABLE IF NOT EXISTS task_archive
+(
+    id          BIGINT PRIMARY KEY,
+    created     TIMESTAMP    NOT NULL,
+    last_upd    TIMESTAMP    NOT NULL,
+    title       VARCHAR(200) NOT NULL,
+    description VARCHAR(2000),
+    due_date    TIMESTAMP    NOT NULL,
+    completed   BOOLEAN      NOT NULL,
+    version     BIGINT       NOT NULL,
+    archived_at TIMESTAMP    NOT NULL
+) WITH (fillfactor = 100);
+
+-- Перенос в архив не удаляет задачу: при task.archiving = 'on' (выставляется в транзакции переноса)
+-- удаление из task не пишет отметку об удалении и не меняет счётчики статистики.
+CREATE OR REPLACE FUNCTION task_write_tombstone() RETURNS trigger AS
+$$
+BEGIN
+    IF current_setting('task.archiving', true) = 'on' THEN
+        RETURN OLD;
+    END IF;
+    INSERT INTO task_tombstone (task_id, deleted_at)
+    VALUES (OLD.id, clock_timestamp()::timestamp)
+    ON CONFLICT (task_id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION task_count_stats() RETURNS trigger AS
+$$
+BEGIN
+    IF current_setting('task.archiving', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO task_stats_delta (completed, due_day, delta)
+        SELECT completed, due_date::date, count(*) FROM new_rows GROUP BY completed, due_date::date;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO task_stats_delta (completed, due_day, delta)
+        SELECT completed, due_date::date, -count(*) FROM old_rows GROUP BY completed, due_date::date;
+    ELSE
+        -- Строки, у которых не изменились ни статус, ни день срока, взаимно сокращаются.
+        INSERT INTO task_stats_delta (completed, due_day, delta)
+        SELECT completed, due_day, sum(delta)
+        FROM (SELECT completed, due_date::date AS due_day, -1 AS delta FROM old_rows
+              UNION ALL
+              SELECT completed, due_date::date, 1 FROM new_rows) d
+        GROUP BY completed, due_day
+        HAVING sum(delta) <> 0;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Удаление задачи из архива видно синхронизации и статистике так же, как удаление из task.
+CREATE TRIGGER task_archive_write_tombstone
+    AFTER DELETE
+    ON task_archive
+    FOR EACH ROW
+EXECUTE FUNCTION task_write_tombstone();
+
+CREATE TRIGGER task_archive_count_stats_delete
+    AFTER DELETE
+    ON task_archive
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION task_count_stats();
@@ -0,0 +1,3 @@
+-- Синхронизация читает изменения и из архива: перенос в архив не удаляет задачу, и полная синхронизация
+-- должна её вернуть. Архив только пополняется, поэтому индекс почти не добавляет работы переносу.
+CREATE INDEX IF NOT EXISTS task_archive_last_upd_id_idx ON task_archive (last_upd, id);
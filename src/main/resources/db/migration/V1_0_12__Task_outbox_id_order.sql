@@ -0,0 +1,2 @@
+-- id сообщений outbox выдаёт БД при вставке, блоки для Hibernate больше не нужны.
+ALTER SEQUENCE task_outbox_id_seq INCREMENT BY 1;
@@ -0,0 +1,30 @@
+-- Сколько раз обработчик просроченной задачи завершился ошибкой. После task.overdue.max-attempts ошибок
+-- задача отмечается без уведомления, иначе она забиралась бы первой в каждом проходе.
+ALTER TABLE task ADD COLUMN overdue_attempts INT NOT NULL DEFAULT 0;
+
+-- Перенос срока или повторное открытие задачи снова делает её кандидатом на уведомление.
+CREATE OR REPLACE FUNCTION task_reset_overdue() RETURNS trigger AS
+$$
+BEGIN
+    IF NEW.due_date IS DISTINCT FROM OLD.due_date OR (OLD.completed AND NOT NEW.completed) THEN
+        NEW.overdue_notified_at := NULL;
+        NEW.overdue_attempts := 0;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Отметка об уведомлении и счётчик ошибок не являются изменением задачи для синхронизации.
+CREATE OR REPLACE FUNCTION task_touch_last_upd() RETURNS trigger AS
+$$
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND (NEW.overdue_notified_at, NEW.overdue_attempts) IS DISTINCT FROM (OLD.overdue_notified_at, OLD.overdue_attempts)
+        AND (NEW.title, NEW.description, NEW.due_date, NEW.completed)
+            IS NOT DISTINCT FROM (OLD.title, OLD.description, OLD.due_date, OLD.completed) THEN
+        RETURN NEW;
+    END IF;
+    NEW.last_upd := clock_timestamp()::timestamp;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,4 @@
+-- Hibernate выделяет id блоками по 50 (pooled optimizer), шаг последовательности должен совпадать с allocationSize.
+ALTER SEQUENCE task_id_seq INCREMENT BY 50;
+-- Значение по умолчанию из SERIAL выдавало бы id, пересекающиеся с блоками Hibernate.
+ALTER TABLE task ALTER COLUMN id DROP DEFAULT;
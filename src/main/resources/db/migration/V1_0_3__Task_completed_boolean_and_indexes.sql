@@ -0,0 +1,25 @@
+-- Исходные ограничения CHECK ссылались на description вместо title и completed. PostgreSQL назвал их
+-- по столбцу из выражения (task_description_check, task_description_check1), поэтому ищем их в pg_constraint:
+-- других CHECK на task к этому моменту нет.
+DO
+$$
+    DECLARE
+        constraint_name TEXT;
+    BEGIN
+        FOR constraint_name IN SELECT conname FROM pg_constraint WHERE conrelid = 'task'::regclass AND contype = 'c'
+            LOOP
+                EXECUTE format('ALTER TABLE task DROP CONSTRAINT %I', constraint_name);
+            END LOOP;
+    END
+$$;
+
+-- completed хранился строкой, хотя в сущности это boolean.
+ALTER TABLE task ALTER COLUMN completed TYPE BOOLEAN USING completed::boolean;
+
+ALTER TABLE task ADD CONSTRAINT task_title_check CHECK (length(trim(title)) >= 3);
+
+-- Постраничное чтение и выгрузка идут в порядке (due_date, id).
+CREATE INDEX IF NOT EXISTS task_due_date_id_idx ON task (due_date, id);
+
+-- Просроченные и открытые задачи: небольшая часть таблицы, поэтому частичный индекс.
+CREATE INDEX IF NOT EXISTS task_open_due_date_idx ON task (due_date) WHERE NOT completed;
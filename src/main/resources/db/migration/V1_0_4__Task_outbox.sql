@@ -0,0 +1,12 @@
+-- Сообщения об изменениях задач для внешних систем. Пишутся в той же транзакции, что и изменение,
+-- и удаляются после отправки.
+CREATE SEQUENCE IF NOT EXISTS task_outbox_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS task_outbox
+(
+    id          BIGINT PRIMARY KEY DEFAULT nextval('task_outbox_id_seq'),
+    created     TIMESTAMP   NOT NULL,
+    task_id     BIGINT      NOT NULL,
+    change_type VARCHAR(10) NOT NULL,
+    payload     TEXT
+);
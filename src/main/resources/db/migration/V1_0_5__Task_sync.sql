@@ -0,0 +1,42 @@
+-- last_upd выставляет БД по своим часам при любой вставке и изменении, в том числе из native-запросов,
+-- чтобы синхронизация не зависела от часов экземпляров приложения.
+CREATE OR REPLACE FUNCTION task_touch_last_upd() RETURNS trigger AS
+$$
+BEGIN
+    NEW.last_upd := clock_timestamp()::timestamp;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER task_touch_last_upd
+    BEFORE INSERT OR UPDATE
+    ON task
+    FOR EACH ROW
+EXECUTE FUNCTION task_touch_last_upd();
+
+CREATE INDEX IF NOT EXISTS task_last_upd_id_idx ON task (last_upd, id);
+
+-- Удалённые задачи, чтобы синхронизация могла сообщить клиенту об удалении.
+CREATE TABLE IF NOT EXISTS task_tombstone
+(
+    task_id    BIGINT PRIMARY KEY,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS task_tombstone_deleted_at_idx ON task_tombstone (deleted_at, task_id);
+
+CREATE OR REPLACE FUNCTION task_write_tombstone() RETURNS trigger AS
+$$
+BEGIN
+    INSERT INTO task_tombstone (task_id, deleted_at)
+    VALUES (OLD.id, clock_timestamp()::timestamp)
+    ON CONFLICT (task_id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER task_write_tombstone
+    AFTER DELETE
+    ON task
+    FOR EACH ROW
+EXECUTE FUNCTION task_write_tombstone();
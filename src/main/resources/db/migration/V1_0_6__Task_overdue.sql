@@ -0,0 +1,38 @@
+-- Когда по просроченной задаче отправлено уведомление. NULL - уведомление ещё не отправлялось.
+ALTER TABLE task ADD COLUMN overdue_notified_at TIMESTAMP;
+
+-- Только задачи, ожидающие уведомления: индекс остаётся маленьким, сколько бы задач ни было просрочено.
+CREATE INDEX IF NOT EXISTS task_overdue_pending_idx ON task (due_date)
+    WHERE NOT completed AND overdue_notified_at IS NULL;
+
+-- Перенос срока или повторное открытие задачи снова делает её кандидатом на уведомление.
+CREATE OR REPLACE FUNCTION task_reset_overdue() RETURNS trigger AS
+$$
+BEGIN
+    IF NEW.due_date IS DISTINCT FROM OLD.due_date OR (OLD.completed AND NOT NEW.completed) THEN
+        NEW.overdue_notified_at := NULL;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER task_reset_overdue
+    BEFORE UPDATE
+    ON task
+    FOR EACH ROW
+EXECUTE FUNCTION task_reset_overdue();
+
+-- Отметка об уведомлении не является изменением задачи для синхронизации.
+CREATE OR REPLACE FUNCTION task_touch_last_upd() RETURNS trigger AS
+$$
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND NEW.overdue_notified_at IS DISTINCT FROM OLD.overdue_notified_at
+        AND (NEW.title, NEW.description, NEW.due_date, NEW.completed)
+            IS NOT DISTINCT FROM (OLD.title, OLD.description, OLD.due_date, OLD.completed) THEN
+        RETURN NEW;
+    END IF;
+    NEW.last_upd := clock_timestamp()::timestamp;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,9 @@
+-- Поисковый вектор по названию (вес A) и описанию (вес B). Конфигурация russian
+-- приводит русские слова к основе, латинские обрабатывает английским стеммером.
+ALTER TABLE task
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS task_search_idx ON task USING GIN (search_vector);
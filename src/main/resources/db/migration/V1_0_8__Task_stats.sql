@@ -0,0 +1,67 @@
+-- Количество задач по статусу и дню срока. Статистика читается отсюда, а не подсчётом по task.
+CREATE TABLE IF NOT EXISTS task_stats
+(
+    completed  BOOLEAN NOT NULL,
+    due_day    DATE    NOT NULL,
+    task_count BIGINT  NOT NULL,
+    PRIMARY KEY (completed, due_day)
+);
+
+-- Изменения счётчиков, ещё не перенесённые в task_stats. Триггеры только добавляют строки,
+-- поэтому параллельные транзакции не ждут друг друга на строке счётчика.
+CREATE TABLE IF NOT EXISTS task_stats_delta
+(
+    completed BOOLEAN NOT NULL,
+    due_day   DATE    NOT NULL,
+    delta     BIGINT  NOT NULL
+);
+
+INSERT INTO task_stats (completed, due_day, task_count)
+SELECT completed, due_date::date, count(*)
+FROM task
+GROUP BY completed, due_date::date;
+
+-- Триггеры уровня оператора: пакетная вставка или удаление даёт одну строку на (статус, день).
+CREATE OR REPLACE FUNCTION task_count_stats() RETURNS trigger AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO task_stats_delta (completed, due_day, delta)
+        SELECT completed, due_date::date, count(*) FROM new_rows GROUP BY completed, due_date::date;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO task_stats_delta (completed, due_day, delta)
+        SELECT completed, due_date::date, -count(*) FROM old_rows GROUP BY completed, due_date::date;
+    ELSE
+        -- Строки, у которых не изменились ни статус, ни день срока, взаимно сокращаются.
+        INSERT INTO task_stats_delta (completed, due_day, delta)
+        SELECT completed, due_day, sum(delta)
+        FROM (SELECT completed, due_date::date AS due_day, -1 AS delta FROM old_rows
+              UNION ALL
+              SELECT completed, due_date::date, 1 FROM new_rows) d
+        GROUP BY completed, due_day
+        HAVING sum(delta) <> 0;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER task_count_stats_insert
+    AFTER INSERT
+    ON task
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION task_count_stats();
+
+CREATE TRIGGER task_count_stats_update
+    AFTER UPDATE
+    ON task
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION task_count_stats();
+
+CREATE TRIGGER task_count_stats_delete
+    AFTER DELETE
+    ON task
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION task_count_stats();
@@ -0,0 +1,93 @@
+-- Перевод task на секционирование по хешу id (нужен PostgreSQL 13+ для BEFORE-триггеров на секционированной
+-- таблице). Поиск, изменение и удаление по id затрагивают одну секцию, VACUUM и перестроение индексов
+-- идут по секциям. Данные копируются в одной транзакции: на большой таблице миграцию нужно запускать
+-- в окно обслуживания, она занимает время порядка полного копирования таблицы.
+ALTER TABLE task RENAME TO task_unpartitioned;
+-- Иначе последовательность удалится вместе со старой таблицей.
+ALTER SEQUENCE task_id_seq OWNED BY NONE;
+ALTER SEQUENCE task_id_seq AS BIGINT;
+
+CREATE TABLE task
+(
+    id                  BIGINT       NOT NULL,
+    created             TIMESTAMP    NOT NULL,
+    last_upd            TIMESTAMP    NOT NULL,
+    title               VARCHAR(200) NOT NULL CHECK (length(trim(title)) >= 3),
+    description         VARCHAR(2000),
+    due_date            TIMESTAMP    NOT NULL,
+    completed           BOOLEAN      NOT NULL,
+    version             BIGINT       NOT NULL DEFAULT 0,
+    overdue_notified_at TIMESTAMP,
+    search_vector       tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+    ) STORED
+) PARTITION BY HASH (id);
+
+DO
+$$
+    BEGIN
+        FOR i IN 0..15
+            LOOP
+                EXECUTE format('CREATE TABLE task_p%s PARTITION OF task FOR VALUES WITH (MODULUS 16, REMAINDER %s)', i, i);
+            END LOOP;
+    END
+$$;
+
+-- Копируем до создания индексов и триггеров: так быстрее, а last_upd, отметки об удалении
+-- и счётчики статистики не меняются.
+INSERT INTO task (id, created, last_upd, title, description, due_date, completed, version, overdue_notified_at)
+SELECT id, created, last_upd, title, description, due_date, completed, version, overdue_notified_at
+FROM task_unpartitioned;
+
+DROP TABLE task_unpartitioned;
+ALTER SEQUENCE task_id_seq OWNED BY task.id;
+
+ALTER TABLE task ADD CONSTRAINT task_pkey PRIMARY KEY (id);
+CREATE INDEX task_due_date_id_idx ON task (due_date, id);
+CREATE INDEX task_open_due_date_idx ON task (due_date) WHERE NOT completed;
+CREATE INDEX task_last_upd_id_idx ON task (last_upd, id);
+CREATE INDEX task_overdue_pending_idx ON task (due_date) WHERE NOT completed AND overdue_notified_at IS NULL;
+CREATE INDEX task_search_idx ON task USING GIN (search_vector);
+
+-- Триггеры старой таблицы удалены вместе с ней, функции остаются прежними.
+CREATE TRIGGER task_touch_last_upd
+    BEFORE INSERT OR UPDATE
+    ON task
+    FOR EACH ROW
+EXECUTE FUNCTION task_touch_last_upd();
+
+CREATE TRIGGER task_reset_overdue
+    BEFORE UPDATE
+    ON task
+    FOR EACH ROW
+EXECUTE FUNCTION task_reset_overdue();
+
+CREATE TRIGGER task_write_tombstone
+    AFTER DELETE
+    ON task
+    FOR EACH ROW
+EXECUTE FUNCTION task_write_tombstone();
+
+CREATE TRIGGER task_count_stats_insert
+    AFTER INSERT
+    ON task
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION task_count_stats();
+
+CREATE TRIGGER task_count_stats_update
+    AFTER UPDATE
+    ON task
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION task_count_stats();
+
+CREATE TRIGGER task_count_stats_delete
+    AFTER DELETE
+    ON task
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION task_count_stats();
+
+ANALYZE task;
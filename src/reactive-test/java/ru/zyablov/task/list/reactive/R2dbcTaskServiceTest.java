@@ -0,0 +1,197 @@
+package ru.zyablov.task.list.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.Readable;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.zyablov.task.list.changes.TaskChangedEvent;
+import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.dto.TaskPatch;
+import ru.zyablov.task.list.exception.TaskVersionMismatchException;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class R2dbcTaskServiceTest {
+    private static final String INSERT_OUTBOX = "INSERT INTO task_outbox";
+
+    @Mock
+    DatabaseClient databaseClient;
+    @Mock
+    TransactionalOperator transactionalOperator;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    R2dbcTaskService taskService;
+
+    @BeforeEach
+    void setUp() {
+        taskService = new R2dbcTaskService(databaseClient, Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().findAndRegisterModules(), transactionalOperator, eventPublisher);
+    }
+
+    @Test
+    void create_TaskValid_WriteOutboxAndPublishEvent() {
+        // given
+        var now = LocalDateTime.now();
+        var taskData = new TaskData(0L, "Задача 1", "Описание 1", now, false, 0L, null);
+        doReturn(returning(Map.of("id", 1L, "version", 0L, "last_upd", now)))
+                .when(databaseClient).sql(startsWith("INSERT INTO task ("));
+        var outbox = executing();
+        doReturn(outbox).when(databaseClient).sql(startsWith(INSERT_OUTBOX));
+        inTransaction();
+
+        // when
+        var created = taskService.create(taskData).block();
+
+        // then
+        var expected = new TaskData(1L, "Задача 1", "Описание 1", now, false, 0L, now);
+        assertEquals(expected, created);
+        verify(outbox).bind("taskId", 1L);
+        verify(outbox).bind("changeType", "CREATED");
+        verify(eventPublisher).publishEvent(TaskChangedEvent.created(expected));
+    }
+
+    @Test
+    void update_VersionIsStale_NoOutboxAndNoEvent() {
+        // given
+        var taskData = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.now(), false, 0L, null);
+        doReturn(returning(null)).when(databaseClient).sql(startsWith("UPDATE task"));
+        doReturn(returning(Map.of())).when(databaseClient).sql(startsWith("SELECT 1 FROM task"));
+        inTransaction();
+
+        // when
+        var update = taskService.update(1L, taskData, 2L);
+
+        // then
+        var e = assertThrows(RuntimeException.class, update::block);
+        assertInstanceOf(TaskVersionMismatchException.class, Exceptions.unwrap(e));
+        verify(databaseClient, never()).sql(startsWith(INSERT_OUTBOX));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void patch_CompletedIsNull_ReturnConstraintViolationException() {
+        // given
+        var patch = new TaskPatch();
+        patch.setCompleted(null);
+
+        // when
+        var patched = taskService.patch(1L, patch, null);
+
+        // then
+        var e = assertThrows(RuntimeException.class, patched::block);
+        assertInstanceOf(ConstraintViolationException.class, Exceptions.unwrap(e));
+        verifyNoInteractions(databaseClient);
+    }
+
+    @Test
+    void delete_TaskExist_WriteOutboxAndPublishEvent() {
+        // given
+        doReturn(updating(1L)).when(databaseClient).sql("DELETE FROM task WHERE id = :id");
+        var outbox = executing();
+        doReturn(outbox).when(databaseClient).sql(startsWith(INSERT_OUTBOX));
+        inTransaction();
+
+        // when
+        taskService.delete(1L).block();
+
+        // then
+        verify(outbox).bind("taskId", 1L);
+        verify(outbox).bind("changeType", "DELETED");
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(1L));
+    }
+
+    @Test
+    void delete_TaskNotExist_NoOutboxAndNoEvent() {
+        // given
+        doReturn(updating(0L)).when(databaseClient).sql("DELETE FROM task WHERE id = :id");
+        doReturn(updating(0L)).when(databaseClient).sql("DELETE FROM task_archive WHERE id = :id");
+        inTransaction();
+
+        // when
+        taskService.delete(1L).block();
+
+        // then
+        verify(databaseClient, never()).sql(startsWith(INSERT_OUTBOX));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private void inTransaction() {
+        doAnswer(invocation -> invocation.getArgument(0)).when(transactionalOperator).transactional(any(Mono.class));
+    }
+
+    /**
+     * Запрос, возвращающий одну строку с переданными столбцами, или ни одной, если row = null.
+     */
+    private static DatabaseClient.GenericExecuteSpec returning(Map<String, Object> row) {
+        var spec = mock(DatabaseClient.GenericExecuteSpec.class, RETURNS_SELF);
+        var readable = mock(Readable.class, invocation -> row == null ? null : row.get(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> {
+            Function<Readable, Object> mapper = invocation.getArgument(0);
+            return rows(row == null ? Mono.empty() : Mono.fromCallable(() -> mapper.apply(readable)));
+        }).when(spec).map(any(Function.class));
+        return spec;
+    }
+
+    private static DatabaseClient.GenericExecuteSpec updating(long rowsUpdated) {
+        var spec = mock(DatabaseClient.GenericExecuteSpec.class, RETURNS_SELF);
+        FetchSpec<Map<String, Object>> fetch = mock(FetchSpec.class);
+        doReturn(Mono.just(rowsUpdated)).when(fetch).rowsUpdated();
+        doReturn(fetch).when(spec).fetch();
+        return spec;
+    }
+
+    private static DatabaseClient.GenericExecuteSpec executing() {
+        var spec = mock(DatabaseClient.GenericExecuteSpec.class, RETURNS_SELF);
+        doReturn(Mono.empty()).when(spec).then();
+        return spec;
+    }
+
+    private static <T> RowsFetchSpec<T> rows(Mono<T> one) {
+        return new RowsFetchSpec<>() {
+            @Override
+            public Mono<T> one() {
+                return one;
+            }
+
+            @Override
+            public Mono<T> first() {
+                return one;
+            }
+
+            @Override
+            public Flux<T> all() {
+                return one.flux();
+            }
+        };
+    }
+}
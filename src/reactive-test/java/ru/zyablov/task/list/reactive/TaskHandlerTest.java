@@ -0,0 +1,112 @@
+package ru.zyablov.task.list.reactive;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.exception.NoSuchTaskException;
+import ru.zyablov.task.list.exception.TaskArchivedException;
+import ru.zyablov.task.list.exception.TaskVersionMismatchException;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+
+@ExtendWith(MockitoExtension.class)
+class TaskHandlerTest {
+
+    @Mock
+    ReactiveTaskService taskService;
+
+    WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToRouterFunction(new TaskRouter().taskRoutes(new TaskHandler(taskService))).build();
+    }
+
+    @Test
+    void getTask_TaskExist_ReturnTaskWithETag() {
+        // given
+        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.of(2024, 1, 1, 10, 0), false, 3L, null);
+        doReturn(Mono.just(task)).when(taskService).findById(1L);
+
+        // when
+        var res = client.get().uri("/tasks/1").exchange();
+
+        // then
+        res.expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"")
+                .expectBody().jsonPath("$.title").isEqualTo("Задача 1");
+    }
+
+    @Test
+    void getTask_TaskNotExist_ReturnBadRequest() {
+        // given
+        doReturn(Mono.error(new NoSuchTaskException("Не найден задача с id = 1"))).when(taskService).findById(1L);
+
+        // when
+        var res = client.get().uri("/tasks/1").exchange();
+
+        // then
+        res.expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("Не найден задача с id = 1");
+    }
+
+    @Test
+    void updateTask_IfMatchIsStale_ReturnPreconditionFailed() {
+        // given
+        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.of(2024, 1, 1, 10, 0), false, 0L, null);
+        doReturn(Mono.error(new TaskVersionMismatchException("Задача с id = 1 была изменена")))
+                .when(taskService).update(eq(1L), any(TaskData.class), eq(2L));
+
+        // when
+        var res = client.put().uri("/tasks/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .bodyValue(task)
+                .exchange();
+
+        // then
+        res.expectStatus().isEqualTo(412)
+                .expectBody(String.class).isEqualTo("Задача с id = 1 была изменена");
+    }
+
+    @Test
+    void updateTask_TaskArchived_ReturnConflict() {
+        // given
+        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.of(2024, 1, 1, 10, 0), false, 0L, null);
+        doReturn(Mono.error(new TaskArchivedException("Задача с id = 1 перенесена в архив и доступна только для чтения и удаления")))
+                .when(taskService).update(eq(1L), any(TaskData.class), eq(null));
+
+        // when
+        var res = client.put().uri("/tasks/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(task)
+                .exchange();
+
+        // then
+        res.expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.reason").isEqualTo("archived");
+    }
+
+    @Test
+    void deleteTask_TaskExistOrNotExist_ReturnNoContent() {
+        // given
+        doReturn(Mono.empty()).when(taskService).delete(1L);
+
+        // when
+        var res = client.delete().uri("/tasks/1").exchange();
+
+        // then
+        res.expectStatus().isNoContent();
+    }
+}
@@ -0,0 +1,309 @@
+package ru.zyablov.task.list.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.Readable;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.zyablov.task.list.changes.TaskChangedEvent;
+import ru.zyablov.task.list.dto.TaskCursor;
+import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.dto.TaskFilter;
+import ru.zyablov.task.list.dto.TaskPage;
+import ru.zyablov.task.list.dto.TaskPatch;
+import ru.zyablov.task.list.entity.Task;
+import ru.zyablov.task.list.exception.NoSuchTaskException;
+import ru.zyablov.task.list.exception.TaskArchivedException;
+import ru.zyablov.task.list.exception.TaskVersionMismatchException;
+import ru.zyablov.task.list.utils.ConverterUtils;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static ru.zyablov.task.list.utils.ConverterUtils.apiToDomain;
+import static ru.zyablov.task.list.utils.ConverterUtils.applyPatch;
+import static ru.zyablov.task.list.utils.ConverterUtils.domainToApi;
+
+/**
+ * Работа с задачами через R2DBC. Конкурентные изменения отсекаются проверкой версии в самом UPDATE.
+ * Каждое изменение в той же транзакции записывается в outbox, как в {@link ru.zyablov.task.list.outbox.TaskOutboxWriter},
+ * а после фиксации публикуется {@link TaskChangedEvent} для ленты изменений.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class R2dbcTaskService implements ReactiveTaskService {
+    static final int MAX_PAGE_SIZE = 500;
+    private static final int FETCH_SIZE = 500;
+    private static final String SELECT = "SELECT id, created, last_upd, title, description, due_date, completed, version FROM task";
+    private static final String SELECT_ARCHIVED = "SELECT id, created, last_upd, title, description, due_date, completed, version FROM task_archive";
+    private static final String UPDATE = """
+            UPDATE task SET title = :title, description = :description, due_date = :dueDate, completed = :completed,
+                version = version + 1
+            WHERE id = :id""";
+
+    private static final String INSERT_OUTBOX = """
+            INSERT INTO task_outbox (created, task_id, change_type, payload)
+            VALUES (localtimestamp, :taskId, :changeType, :payload)""";
+
+    private final DatabaseClient databaseClient;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionalOperator transactionalOperator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public Mono<TaskPage> findPage(TaskFilter filter, String cursor, int limit) {
+        var pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        return Mono.defer(() -> {
+                    var after = cursor == null || cursor.isBlank() ? null : TaskCursor.decode(cursor);
+                    return select(filter, after, pageSize + 1).collectList();
+                })
+                .map(tasks -> {
+                    // Читаем на одну запись больше, чтобы узнать, есть ли следующая страница, без count-запроса.
+                    String nextCursor = null;
+                    if (tasks.size() > pageSize) {
+                        tasks = tasks.subList(0, pageSize);
+                        var last = tasks.get(pageSize - 1);
+                        nextCursor = new TaskCursor(last.getDueDate(), last.getId()).encode();
+                    }
+                    return TaskPage.builder()
+                            .items(tasks.stream().map(ConverterUtils::domainToApi).toList())
+                            .nextCursor(nextCursor)
+                            .build();
+                });
+    }
+
+    @Override
+    public Flux<TaskData> findAll(TaskFilter filter) {
+        return select(filter, null, null).map(ConverterUtils::domainToApi);
+    }
+
+    @Override
+    public Mono<TaskData> findById(Long id) {
+        return databaseClient.sql(SELECT + " WHERE id = :id")
+                .bind("id", id)
+                .map(R2dbcTaskService::toTask)
+                .one()
+                // Давно завершённые задачи переносятся в архив, ищем там только при промахе.
+                .switchIfEmpty(Mono.defer(() -> databaseClient.sql(SELECT_ARCHIVED + " WHERE id = :id")
+                        .bind("id", id)
+                        .map(R2dbcTaskService::toTask)
+                        .one()))
+                .switchIfEmpty(Mono.error(() -> noSuchTask(id)))
+                .map(ConverterUtils::domainToApi);
+    }
+
+    @Override
+    public Mono<TaskData> create(TaskData taskData) {
+        return Mono.fromCallable(() -> validated(apiToDomain(taskData)))
+                // Значение последовательности - верхняя граница блока из 50 id, который больше никто не займёт,
+                // поэтому вставки отсюда не пересекаются с id, выданными Hibernate.
+                .flatMap(task -> recordChange(bindFields(databaseClient.sql("""
+                                INSERT INTO task (id, created, last_upd, title, description, due_date, completed)
+                                VALUES (nextval('task_id_seq'), localtimestamp, localtimestamp, :title, :description, :dueDate, :completed)
+                                RETURNING id, version, last_upd"""), task)
+                        .map(row -> {
+                            task.setId(row.get("id", Long.class));
+                            task.setVersion(row.get("version", Long.class));
+                            task.setLastUpd(row.get("last_upd", LocalDateTime.class));
+                            return TaskChangedEvent.created(domainToApi(task));
+                        })
+                        .one()))
+                .map(TaskChangedEvent::task);
+    }
+
+    @Override
+    public Mono<TaskData> update(Long id, TaskData taskData, Long expectedVersion) {
+        return Mono.fromCallable(() -> validated(apiToDomain(taskData)))
+                .flatMap(task -> {
+                    task.setId(id);
+                    return recordChange(updateVersion(task, expectedVersion).map(R2dbcTaskService::updated))
+                            .map(TaskChangedEvent::task)
+                            .switchIfEmpty(Mono.defer(() -> expectedVersion == null
+                                    ? notFoundOrArchived(id)
+                                    : exists(id).flatMap(exists -> exists ? Mono.error(versionMismatch(id)) : notFoundOrArchived(id))));
+                });
+    }
+
+    @Override
+    public Mono<TaskData> patch(Long id, TaskPatch patch, Long expectedVersion) {
+        return Mono.fromCallable(() -> validated(patch))
+                .flatMap(valid -> databaseClient.sql(SELECT + " WHERE id = :id")
+                        .bind("id", id)
+                        .map(R2dbcTaskService::toTask)
+                        .one())
+                .switchIfEmpty(Mono.defer(() -> notFoundOrArchived(id)))
+                .flatMap(task -> {
+                    if (expectedVersion != null && expectedVersion != task.getVersion()) {
+                        return Mono.error(versionMismatch(id));
+                    }
+                    applyPatch(patch, task);
+                    validated(task);
+                    // Версию проверяем всегда: между чтением и записью задачу мог изменить другой запрос.
+                    return recordChange(updateVersion(task, task.getVersion()).map(R2dbcTaskService::updated))
+                            .map(TaskChangedEvent::task)
+                            .switchIfEmpty(Mono.error(() -> versionMismatch(id)));
+                });
+    }
+
+    @Override
+    public Mono<Void> delete(Long id) {
+        // Событие нужно только если задача действительно была удалена.
+        return recordChange(databaseClient.sql("DELETE FROM task WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(deleted -> deleted > 0
+                        ? Mono.just(deleted)
+                        : databaseClient.sql("DELETE FROM task_archive WHERE id = :id").bind("id", id).fetch().rowsUpdated())
+                .filter(deleted -> deleted > 0)
+                .map(deleted -> TaskChangedEvent.deleted(id)))
+                .then();
+    }
+
+    private Flux<Task> select(TaskFilter filter, TaskCursor after, Integer limit) {
+        var sql = new StringBuilder(SELECT).append(" WHERE true");
+        Map<String, Object> params = new LinkedHashMap<>();
+        if (filter.getCompleted() != null) {
+            sql.append(" AND completed = :completed");
+            params.put("completed", filter.getCompleted());
+        }
+        if (filter.getDueFrom() != null) {
+            sql.append(" AND due_date >= :dueFrom");
+            params.put("dueFrom", filter.getDueFrom());
+        }
+        if (filter.getDueTo() != null) {
+            sql.append(" AND due_date < :dueTo");
+            params.put("dueTo", filter.getDueTo());
+        }
+        if (after != null) {
+            sql.append(" AND (due_date, id) > (:afterDueDate, :afterId)");
+            params.put("afterDueDate", after.getDueDate());
+            params.put("afterId", after.getId());
+        }
+        sql.append(" ORDER BY due_date, id");
+        if (limit != null) {
+            sql.append(" LIMIT :limit");
+            params.put("limit", limit);
+        }
+        return databaseClient.sql(sql.toString())
+                .bindValues(params)
+                // Строки забираются порциями через курсор, а не всем результатом сразу.
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(R2dbcTaskService::toTask)
+                .all();
+    }
+
+    private Mono<Task> updateVersion(Task task, Long expectedVersion) {
+        var sql = expectedVersion == null
+                ? UPDATE + " RETURNING version, last_upd"
+                : UPDATE + " AND version = :version RETURNING version, last_upd";
+        var spec = bindFields(databaseClient.sql(sql), task).bind("id", task.getId());
+        if (expectedVersion != null) {
+            spec = spec.bind("version", expectedVersion);
+        }
+        // Время изменения выставляет триггер БД, поэтому берём его из RETURNING.
+        return spec.map(row -> {
+            task.setVersion(row.get("version", Long.class));
+            task.setLastUpd(row.get("last_upd", LocalDateTime.class));
+            return task;
+        }).one();
+    }
+
+    /**
+     * Выполнить изменение и запись в outbox в одной транзакции, после фиксации опубликовать событие.
+     * TaskOutboxWriter вне транзакции JPA событие пропускает,
+     * поэтому outbox не записывается дважды.
+     *
+     * @return Mono<TaskChangedEvent> пусто, если ничего не изменено
+     */
+    private Mono<TaskChangedEvent> recordChange(Mono<TaskChangedEvent> change) {
+        return change.flatMap(event -> writeOutbox(event).thenReturn(event))
+                .as(transactionalOperator::transactional)
+                .doOnNext(eventPublisher::publishEvent);
+    }
+
+    private Mono<Void> writeOutbox(TaskChangedEvent event) {
+        return Mono.fromCallable(() -> event.task() == null ? Parameter.empty(String.class) : Parameter.from(objectMapper.writeValueAsString(event.task())))
+                .flatMap(payload -> databaseClient.sql(INSERT_OUTBOX)
+                        .bind("taskId", event.id())
+                        .bind("changeType", event.type().name())
+                        .bind("payload", payload)
+                        .then());
+    }
+
+    private static TaskChangedEvent updated(Task task) {
+        return TaskChangedEvent.updated(domainToApi(task));
+    }
+
+    private Mono<Boolean> exists(Long id) {
+        return databaseClient.sql("SELECT 1 FROM task WHERE id = :id")
+                .bind("id", id)
+                .map(row -> true)
+                .one()
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Задачи нет в task: ошибка TaskArchivedException, если она в архиве, иначе NoSuchTaskException.
+     *
+     * @return Mono<T> завершённый ошибкой
+     */
+    private <T> Mono<T> notFoundOrArchived(Long id) {
+        return databaseClient.sql("SELECT 1 FROM task_archive WHERE id = :id")
+                .bind("id", id)
+                .map(row -> true)
+                .one()
+                .defaultIfEmpty(false)
+                .flatMap(archived -> Mono.error(archived ? archived(id) : noSuchTask(id)));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindFields(DatabaseClient.GenericExecuteSpec spec, Task task) {
+        return spec.bind("title", task.getTitle())
+                .bind("description", Parameter.fromOrEmpty(task.getDescription(), String.class))
+                .bind("dueDate", task.getDueDate())
+                .bind("completed", task.isCompleted());
+    }
+
+    private <T> T validated(T value) {
+        var violations = validator.validate(value);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return value;
+    }
+
+    private static Task toTask(Readable row) {
+        return new Task(
+                row.get("id", Long.class),
+                row.get("created", LocalDateTime.class),
+                row.get("last_upd", LocalDateTime.class),
+                row.get("title", String.class),
+                row.get("description", String.class),
+                row.get("due_date", LocalDateTime.class),
+                Boolean.TRUE.equals(row.get("completed", Boolean.class)),
+                row.get("version", Long.class));
+    }
+
+    private static NoSuchTaskException noSuchTask(Long id) {
+        return new NoSuchTaskException("Не найден задача с id = " + id);
+    }
+
+    private static TaskArchivedException archived(Long id) {
+        return new TaskArchivedException("Задача с id = " + id + " перенесена в архив и доступна только для чтения и удаления");
+    }
+
+    private static TaskVersionMismatchException versionMismatch(Long id) {
+        return new TaskVersionMismatchException("Задача с id = " + id + " была изменена");
+    }
+}
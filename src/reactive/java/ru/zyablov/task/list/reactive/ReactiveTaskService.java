@@ -0,0 +1,64 @@
+package ru.zyablov.task.list.reactive;
+
+import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.dto.TaskFilter;
+import ru.zyablov.task.list.dto.TaskPage;
+import ru.zyablov.task.list.dto.TaskPatch;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Неблокирующий вариант {@link ru.zyablov.task.list.service.TaskService}.
+ * Вместо проверяемых исключений Mono завершается ошибкой NoSuchTaskException или TaskVersionMismatchException.
+ */
+public interface ReactiveTaskService {
+    /**
+     * Получить страницу задач, упорядоченных по (dueDate, id).
+     *
+     * @return Mono<TaskPage>
+     */
+    Mono<TaskPage> findPage(TaskFilter filter, String cursor, int limit);
+
+    /**
+     * Получить все подходящие под фильтр задачи в порядке (dueDate, id).
+     * Строки читаются из БД по мере запроса подписчиком.
+     *
+     * @return Flux<TaskData>
+     */
+    Flux<TaskData> findAll(TaskFilter filter);
+
+    /**
+     * Получить задачу по id.
+     *
+     * @return Mono<TaskData>
+     */
+    Mono<TaskData> findById(Long id);
+
+    /**
+     * Создать задачу.
+     *
+     * @return Mono<TaskData>
+     */
+    Mono<TaskData> create(TaskData taskData);
+
+    /**
+     * Обновить задачу. Если expectedVersion не null, задача обновляется только при совпадении версии.
+     *
+     * @return Mono<TaskData>
+     */
+    Mono<TaskData> update(Long id, TaskData taskData, Long expectedVersion);
+
+    /**
+     * Частично обновить задачу.
+     *
+     * @return Mono<TaskData>
+     */
+    Mono<TaskData> patch(Long id, TaskPatch patch, Long expectedVersion);
+
+    /**
+     * Удалить задачу.
+     *
+     * @return Mono<Void>
+     */
+    Mono<Void> delete(Long id);
+}
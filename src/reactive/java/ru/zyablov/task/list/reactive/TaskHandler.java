@@ -0,0 +1,177 @@
+package ru.zyablov.task.list.reactive;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.dto.TaskFilter;
+import ru.zyablov.task.list.dto.TaskPatch;
+import ru.zyablov.task.list.exception.InvalidCursorException;
+import ru.zyablov.task.list.exception.NoSuchTaskException;
+import ru.zyablov.task.list.exception.TaskArchivedException;
+import ru.zyablov.task.list.exception.TaskVersionMismatchException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import static ru.zyablov.task.list.utils.ETagUtils.etag;
+import static ru.zyablov.task.list.utils.ETagUtils.etagMatches;
+import static ru.zyablov.task.list.utils.ETagUtils.expectedVersion;
+
+/**
+ * Обработчики /tasks для WebFlux. Ответы и коды ошибок совпадают с TaskController.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class TaskHandler {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 50;
+
+    private final ReactiveTaskService taskService;
+
+    /**
+     * Получить страницу задач. При Accept: application/x-ndjson отдаются все подходящие задачи потоком,
+     * который читается из БД со скоростью клиента.
+     *
+     * @return Mono<ServerResponse>
+     */
+    public Mono<ServerResponse> getListTasks(ServerRequest request) {
+        return Mono.fromCallable(() -> new TaskFilter(
+                        request.queryParam("completed").map(Boolean::valueOf).orElse(null),
+                        request.queryParam("dueFrom").map(LocalDateTime::parse).orElse(null),
+                        request.queryParam("dueTo").map(LocalDateTime::parse).orElse(null)))
+                .flatMap(filter -> {
+                    if (request.headers().accept().contains(MediaType.APPLICATION_NDJSON)) {
+                        return ServerResponse.ok()
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .body(taskService.findAll(filter), TaskData.class);
+                    }
+                    var cursor = request.queryParam("cursor").orElse(null);
+                    var limit = request.queryParam("limit").map(Integer::parseInt).orElse(DEFAULT_PAGE_SIZE);
+                    return taskService.findPage(filter, cursor, limit).flatMap(page -> {
+                        var response = ServerResponse.ok().contentType(MediaType.APPLICATION_JSON);
+                        if (page.getNextCursor() != null) {
+                            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+                        }
+                        return response.bodyValue(page.getItems());
+                    });
+                })
+                .onErrorResume(TaskHandler::error);
+    }
+
+    /**
+     * Получить задачу по id с ETag, 304 при совпадении If-None-Match.
+     *
+     * @return Mono<ServerResponse>
+     */
+    public Mono<ServerResponse> getTask(ServerRequest request) {
+        var ifNoneMatch = request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH);
+        return Mono.fromCallable(() -> Long.valueOf(request.pathVariable("id")))
+                .flatMap(taskService::findById)
+                .flatMap(task -> ifNoneMatch != null && etagMatches(ifNoneMatch, task.getVersion())
+                        ? ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(etag(task.getVersion())).build()
+                        : ok(task))
+                .onErrorResume(TaskHandler::error);
+    }
+
+    /**
+     * Создать задачу.
+     *
+     * @return Mono<ServerResponse>
+     */
+    public Mono<ServerResponse> createTask(ServerRequest request) {
+        return request.bodyToMono(TaskData.class)
+                .flatMap(taskService::create)
+                .flatMap(task -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(task))
+                .onErrorResume(TaskHandler::error);
+    }
+
+    /**
+     * Обновить задачу с учётом If-Match.
+     *
+     * @return Mono<ServerResponse>
+     */
+    public Mono<ServerResponse> updateTask(ServerRequest request) {
+        var expectedVersion = expectedVersion(request.headers().firstHeader(HttpHeaders.IF_MATCH));
+        return request.bodyToMono(TaskData.class)
+                .flatMap(taskData -> taskService.update(Long.valueOf(request.pathVariable("id")), taskData, expectedVersion))
+                .flatMap(TaskHandler::ok)
+                .onErrorResume(TaskHandler::error);
+    }
+
+    /**
+     * Частично обновить задачу (JSON Merge Patch) с учётом If-Match.
+     *
+     * @return Mono<ServerResponse>
+     */
+    public Mono<ServerResponse> patchTask(ServerRequest request) {
+        var expectedVersion = expectedVersion(request.headers().firstHeader(HttpHeaders.IF_MATCH));
+        return request.bodyToMono(TaskPatch.class)
+                .flatMap(patch -> taskService.patch(Long.valueOf(request.pathVariable("id")), patch, expectedVersion))
+                .flatMap(TaskHandler::ok)
+                .onErrorResume(TaskHandler::error);
+    }
+
+    /**
+     * Удалить задачу.
+     *
+     * @return Mono<ServerResponse>
+     */
+    public Mono<ServerResponse> deleteTask(ServerRequest request) {
+        return Mono.fromCallable(() -> Long.valueOf(request.pathVariable("id")))
+                .flatMap(taskService::delete)
+                .then(ServerResponse.noContent().build())
+                .onErrorResume(TaskHandler::error);
+    }
+
+    private static Mono<ServerResponse> ok(TaskData task) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag(task.getVersion()))
+                .bodyValue(task);
+    }
+
+    private static Mono<ServerResponse> error(Throwable exception) {
+        if (exception instanceof NoSuchTaskException) {
+            return ServerResponse.badRequest().bodyValue(exception.getMessage());
+        }
+        if (exception instanceof TaskVersionMismatchException) {
+            return ServerResponse.status(HttpStatus.PRECONDITION_FAILED).bodyValue(exception.getMessage());
+        }
+        if (exception instanceof TaskArchivedException) {
+            var problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, exception.getMessage());
+            problemDetail.setProperty("reason", "archived");
+            return problem(problemDetail);
+        }
+        if (exception instanceof ConstraintViolationException violation) {
+            var problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Ошибка валидации");
+            problemDetail.setProperty("errors", violation.getConstraintViolations().stream().map(ConstraintViolation::getMessage).toList());
+            return problem(problemDetail);
+        }
+        if (exception instanceof InvalidCursorException || exception instanceof DateTimeParseException
+                || exception instanceof NumberFormatException) {
+            var problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Некорректный запрос");
+            problemDetail.setProperty("message", exception.getMessage());
+            return problem(problemDetail);
+        }
+        var problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, "Внутренняя ошибка сервера");
+        problemDetail.setProperty("message", exception.getMessage());
+        return problem(problemDetail);
+    }
+
+    private static Mono<ServerResponse> problem(ProblemDetail problemDetail) {
+        return ServerResponse.status(problemDetail.getStatus())
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .bodyValue(problemDetail);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.zyablov.task.list.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Маршруты /tasks для реактивного режима (профиль reactive).
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class TaskRouter {
+    private static final MediaType APPLICATION_MERGE_PATCH_JSON = MediaType.valueOf("application/merge-patch+json");
+
+    @Bean
+    public RouterFunction<ServerResponse> taskRoutes(TaskHandler handler) {
+        return route()
+                .path("/tasks", builder -> builder
+                        .GET("", handler::getListTasks)
+                        .GET("/{id}", handler::getTask)
+                        .POST("", contentType(MediaType.APPLICATION_JSON), handler::createTask)
+                        .PUT("/{id}", contentType(MediaType.APPLICATION_JSON), handler::updateTask)
+                        .PATCH("/{id}", contentType(APPLICATION_MERGE_PATCH_JSON, MediaType.APPLICATION_JSON), handler::patchTask)
+                        .DELETE("/{id}", handler::deleteTask))
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package ru.zyablov.task.list.advice;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.context.request.ServletWebRequest;
+import ru.zyablov.task.list.entity.Task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BadRequestControllerAdviceTest {
+    private final BadRequestControllerAdvice advice = new BadRequestControllerAdvice();
+
+    @Test
+    void handleOptimisticLockingFailureException_IfMatchPassed_ReturnPreconditionFailed() {
+        // given
+        var request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_MATCH, "\"1\"");
+        var exception = new ObjectOptimisticLockingFailureException(Task.class, 1L);
+
+        // when
+        var res = advice.handleOptimisticLockingFailureException(exception, new ServletWebRequest(request));
+
+        // then
+        assertEquals(HttpStatus.PRECONDITION_FAILED, res.getStatusCode());
+    }
+
+    @Test
+    void handleOptimisticLockingFailureException_NoIfMatch_ReturnConflict() {
+        // given
+        var exception = new ObjectOptimisticLockingFailureException(Task.class, 1L);
+
+        // when
+        var res = advice.handleOptimisticLockingFailureException(exception, new ServletWebRequest(new MockHttpServletRequest()));
+
+        // then
+        assertEquals(HttpStatus.CONFLICT, res.getStatusCode());
+    }
+}
@@ -0,0 +1,76 @@
+package ru.zyablov.task.list.archive;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.zyablov.task.list.config.TaskArchiveProperties;
+import ru.zyablov.task.list.repository.TaskRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TaskArchiverTest {
+
+    @Mock
+    TaskRepository taskRepository;
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    TaskArchiveProperties properties = new TaskArchiveProperties();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    TaskArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(2);
+        properties.setAge(Duration.ofDays(30));
+        archiver = new TaskArchiver(taskRepository, transactionTemplate, properties, meterRegistry);
+    }
+
+    @Test
+    void archive_FullBatch_MoveUntilDrained() {
+        // given
+        doAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+        doReturn(2, 1).when(taskRepository).archiveCompleted(any(), eq(2));
+        var threshold = LocalDateTime.now().minusDays(30);
+
+        // when
+        archiver.archive();
+
+        // then
+        verify(taskRepository, times(2)).markArchiving();
+        verify(taskRepository, times(2)).archiveCompleted(argThat(before -> !before.isBefore(threshold)
+                && before.isBefore(threshold.plusMinutes(1))), eq(2));
+        assertEquals(3, meterRegistry.get("task.archive.moved").counter().count());
+    }
+
+    @Test
+    void archiveBatch_Failed_ReturnMinusOne() {
+        // given
+        doThrow(new IllegalStateException("недоступна")).when(transactionTemplate).execute(any());
+
+        // when
+        var moved = archiver.archiveBatch(LocalDateTime.now(), 2);
+
+        // then
+        assertEquals(-1, moved);
+        assertEquals(0, meterRegistry.get("task.archive.moved").counter().count());
+    }
+}
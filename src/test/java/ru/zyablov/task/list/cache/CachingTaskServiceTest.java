@@ -0,0 +1,150 @@
+package ru.zyablov.task.list.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.zyablov.task.list.config.TaskCacheProperties;
+import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.exception.NoSuchTaskException;
+import ru.zyablov.task.list.exception.TaskVersionMismatchException;
+import ru.zyablov.task.list.service.TaskService;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class CachingTaskServiceTest {
+
+    @Mock
+    TaskService delegate;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    CachingTaskService taskService;
+
+    @BeforeEach
+    void setUp() {
+        taskService = new CachingTaskService(delegate, new TaskCache(new TaskCacheProperties(), meterRegistry),
+                new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void findById_CacheMiss_LoadInReadWriteTransaction() throws NoSuchTaskException {
+        // given
+        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true, 0L, null);
+        doReturn(task).when(delegate).findById(1L);
+        var definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+
+        // when
+        taskService.findById(1L);
+
+        // then
+        verify(transactionManager).getTransaction(definition.capture());
+        assertFalse(definition.getValue().isReadOnly());
+    }
+
+    @Test
+    void findById_CalledTwice_LoadOnce() throws NoSuchTaskException {
+        // given
+        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true, 0L, null);
+        doReturn(task).when(delegate).findById(1L);
+
+        // when
+        taskService.findById(1L);
+        var res = taskService.findById(1L);
+
+        // then
+        assertEquals(task, res);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "tasks").tag("result", "hit").functionCounter().count());
+        verify(delegate, times(1)).findById(1L);
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    void findById_TaskNotExist_CacheMissingTask() throws NoSuchTaskException {
+        // given
+        doThrow(new NoSuchTaskException("Не найден задача с id = 1")).when(delegate).findById(1L);
+
+        // when
+        assertThrows(NoSuchTaskException.class, () -> taskService.findById(1L));
+        var e = assertThrows(NoSuchTaskException.class, () -> taskService.findById(1L));
+
+        // then
+        assertEquals("Не найден задача с id = 1", e.getMessage());
+        verify(delegate, times(1)).findById(1L);
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    void update_TaskCached_InvalidateCachedTask() throws NoSuchTaskException, TaskVersionMismatchException {
+        // given
+        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, false, 0L, null);
+        var updated = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true, 1L, null);
+        var stored = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true, 1L, LocalDateTime.MIN);
+        doReturn(task, stored).when(delegate).findById(1L);
+        doReturn(updated).when(delegate).update(1L, updated, 0L);
+        taskService.findById(1L);
+
+        // when
+        taskService.update(1L, updated, 0L);
+
+        // then
+        assertEquals(stored, taskService.findById(1L));
+        assertEquals(Optional.of(1L), taskService.findVersionById(1L));
+        verify(delegate, times(2)).findById(1L);
+        verify(delegate).update(1L, updated, 0L);
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    void update_VersionMismatch_InvalidateCachedTask() throws NoSuchTaskException, TaskVersionMismatchException {
+        // given
+        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, false, 0L, null);
+        doReturn(task).when(delegate).findById(1L);
+        doThrow(new TaskVersionMismatchException("Задача с id = 1 была изменена")).when(delegate).update(1L, task, 0L);
+        taskService.findById(1L);
+
+        // when
+        assertThrows(TaskVersionMismatchException.class, () -> taskService.update(1L, task, 0L));
+        taskService.findById(1L);
+
+        // then
+        verify(delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    void delete_TaskCached_CacheMissingTask() throws NoSuchTaskException {
+        // given
+        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, false, 0L, null);
+        doReturn(task).when(delegate).findById(1L);
+        doNothing().when(delegate).delete(1L);
+        taskService.findById(1L);
+
+        // when
+        taskService.delete(1L);
+
+        // then
+        assertThrows(NoSuchTaskException.class, () -> taskService.findById(1L));
+        verify(delegate, times(1)).findById(1L);
+        verify(delegate).delete(1L);
+        verifyNoMoreInteractions(delegate);
+    }
+}
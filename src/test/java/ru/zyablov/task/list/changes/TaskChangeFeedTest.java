@@ -0,0 +1,86 @@
+package ru.zyablov.task.list.changes;
+
+import org.junit.jupiter.api.Test;
+import ru.zyablov.task.list.config.TaskChangesProperties;
+import ru.zyablov.task.list.dto.ChangeType;
+import ru.zyablov.task.list.dto.TaskChange;
+import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.exception.ChangesExpiredException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskChangeFeedTest {
+
+    @Test
+    void await_ChangesExist_ReturnChangesAfterSeq() {
+        // given
+        var feed = new TaskChangeFeed(new TaskChangesProperties());
+        var task = TaskData.builder().id(1L).title("Задача 1").build();
+        feed.publish(TaskChangedEvent.created(task));
+        feed.publish(TaskChangedEvent.updated(task));
+        feed.publish(TaskChangedEvent.deleted(1L));
+        var received = new ArrayList<TaskChange>();
+
+        // when
+        feed.await(feed.cursor(1), 100, received::addAll);
+
+        // then
+        assertEquals(List.of(
+                new TaskChange(2, ChangeType.UPDATED, 1L, task),
+                new TaskChange(3, ChangeType.DELETED, 1L, null)), received);
+        assertEquals(3, feed.currentSeq());
+    }
+
+    @Test
+    void await_NoChanges_CompleteOnNextChange() {
+        // given
+        var feed = new TaskChangeFeed(new TaskChangesProperties());
+        var received = new ArrayList<TaskChange>();
+        feed.await(null, 100, received::addAll);
+        assertTrue(received.isEmpty());
+
+        // when
+        feed.publish(TaskChangedEvent.deleted(5L));
+
+        // then
+        assertEquals(List.of(new TaskChange(1, ChangeType.DELETED, 5L, null)), received);
+    }
+
+    @Test
+    void await_ChangesEvicted_ReturnChangesExpiredException() {
+        // given
+        var properties = new TaskChangesProperties();
+        properties.setHistorySize(2);
+        var feed = new TaskChangeFeed(properties);
+        for (long id = 1; id <= 3; id++) {
+            feed.publish(TaskChangedEvent.deleted(id));
+        }
+
+        // when, then
+        assertThrows(ChangesExpiredException.class, () -> feed.await(feed.cursor(0), 100, changes -> {
+        }));
+        assertThrows(ChangesExpiredException.class, () -> feed.await(feed.cursor(10), 100, changes -> {
+        }));
+    }
+
+    @Test
+    void await_CursorFromAnotherFeed_ReturnChangesExpiredException() {
+        // given
+        var restarted = new TaskChangeFeed(new TaskChangesProperties());
+        var feed = new TaskChangeFeed(new TaskChangesProperties());
+        for (long id = 1; id <= 3; id++) {
+            feed.publish(TaskChangedEvent.deleted(id));
+        }
+
+        // when, then
+        assertThrows(ChangesExpiredException.class, () -> feed.await(restarted.cursor(1), 100, changes -> {
+        }));
+        assertThrows(ChangesExpiredException.class, () -> feed.await("1", 100, changes -> {
+        }));
+    }
+}
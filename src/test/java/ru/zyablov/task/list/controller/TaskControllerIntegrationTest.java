@@ -1,26 +1,58 @@
 package ru.zyablov.task.list.controller;
 
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.metrics.StatementCounter;
+import ru.zyablov.task.list.repository.TaskRepository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@Transactional
+/**
+ * Запросы выполняются без общей тестовой транзакции: каждый фиксирует свою, поэтому в бюджет запросов
+ * попадают и записи перед фиксацией (outbox). Данные удаляются после каждого теста.
+ */
 @SpringBootTest
 @AutoConfigureMockMvc
 class TaskControllerIntegrationTest {
 
     @Autowired
     MockMvc mockMvc;
+    @Autowired
+    StatementCounter statementCounter;
+    @Autowired
+    TaskRepository taskRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE task, task_archive, task_tombstone, task_outbox, task_stats, task_stats_delta");
+    }
 
     @Test
     @Sql("/sql/tasks.sql")
@@ -29,7 +61,7 @@ class TaskControllerIntegrationTest {
         var reqBuilder = MockMvcRequestBuilders.get("/tasks");
 
         // when
-        mockMvc.perform(reqBuilder)
+        performWithin(1, reqBuilder)
 
                 // then
                 .andDo(print())
@@ -94,6 +126,155 @@ class TaskControllerIntegrationTest {
     }
 
 
+    @Test
+    @Sql("/sql/tasks.sql")
+    void getListTasks_LimitAndFilter_ReturnPageAndNextCursor() throws Exception {
+        // given
+        var firstPageReq = MockMvcRequestBuilders.get("/tasks")
+                .param("completed", "true")
+                .param("limit", "2");
+
+        // when
+        var nextCursor = mockMvc.perform(firstPageReq)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        header().exists("X-Next-Cursor"),
+                        content().json("""
+                                [{"id": 1}, {"id": 2}]""")
+                )
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        // given
+        var secondPageReq = MockMvcRequestBuilders.get("/tasks")
+                .param("completed", "true")
+                .param("limit", "2")
+                .param("cursor", nextCursor);
+
+        // when
+        mockMvc.perform(secondPageReq)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        header().doesNotExist("X-Next-Cursor"),
+                        content().json("""
+                                [{"id": 4}]""")
+                );
+    }
+
+    @Test
+    void getListTasks_CursorIsInvalid_ReturnBadReq() throws Exception {
+        // given
+        var req = MockMvcRequestBuilders.get("/tasks").param("cursor", "???");
+
+        // when
+        mockMvc.perform(req)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isBadRequest(),
+                        content().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                );
+    }
+
+    @Test
+    @Sql("/sql/tasks.sql")
+    void searchTasks_WordInTitle_ReturnRankedPageAndNextCursor() throws Exception {
+        // given
+        var req = MockMvcRequestBuilders.get("/tasks/search")
+                .param("q", "задачи")
+                .param("limit", "2");
+
+        // when
+        performWithin(1, req)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        header().exists("X-Next-Cursor"),
+                        content().json("""
+                                [{"id": 1}, {"id": 2}]""")
+                );
+    }
+
+    @Test
+    @Sql("/sql/tasks.sql")
+    void getStats_TasksExist_ReturnCounters() throws Exception {
+        // given
+        var req = MockMvcRequestBuilders.get("/tasks/stats");
+
+        // when
+        performWithin(1, req)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        content().json("""
+                                {
+                                "total": 5,
+                                "completed": 3,
+                                "open": 2,
+                                "overdue": 2,
+                                "dueToday": 0,
+                                "dueNextWeek": 0,
+                                "dueLater": 0
+                                }""")
+                );
+    }
+
+    @Test
+    void getStats_DueTimeTodayPassed_CountAsOverdue() throws Exception {
+        // given
+        mockMvc.perform(MockMvcRequestBuilders.post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                "title": "Задача №1",
+                                "dueDate": "%s",
+                                "completed": false
+                                }
+                                """.formatted(LocalDateTime.now().minusMinutes(1))))
+                .andExpect(status().isOk());
+
+        // when
+        performWithin(1, MockMvcRequestBuilders.get("/tasks/stats"))
+                // then
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$.overdue").value(1),
+                        jsonPath("$.dueToday").value(0)
+                );
+    }
+
+    @Test
+    void findStats_DueTimeAroundNow_SplitTodayAtNow() {
+        // given
+        var today = LocalDate.of(2024, 9, 26);
+        var now = today.atTime(12, 0);
+        jdbcTemplate.update("""
+                insert into task (id, created, last_upd, title, description, due_date, completed)
+                values (1, localtimestamp, localtimestamp, 'Задача №1', 'Описание', '2024-09-25T23:59:59', 'false'),
+                       (2, localtimestamp, localtimestamp, 'Задача №2', 'Описание', '2024-09-26T00:00:00', 'false'),
+                       (3, localtimestamp, localtimestamp, 'Задача №3', 'Описание', '2024-09-26T11:59:59', 'false'),
+                       (4, localtimestamp, localtimestamp, 'Задача №4', 'Описание', '2024-09-26T12:00:00', 'false'),
+                       (5, localtimestamp, localtimestamp, 'Задача №5', 'Описание', '2024-09-26T23:59:59', 'false'),
+                       (6, localtimestamp, localtimestamp, 'Задача №6', 'Описание', '2024-09-26T10:00:00', 'true'),
+                       (7, localtimestamp, localtimestamp, 'Задача №7', 'Описание', '2024-09-27T00:00:00', 'false')""");
+
+        // when
+        var stats = taskRepository.findStats(today, today.plusDays(7), now);
+
+        // then: срок ровно в now ещё не прошёл, срок в начале дня - уже прошёл
+        assertEquals(7, stats.getTotal());
+        assertEquals(1, stats.getCompleted());
+        assertEquals(3, stats.getOverdue());
+        assertEquals(2, stats.getDueToday());
+        assertEquals(1, stats.getDueNextWeek());
+        assertEquals(0, stats.getDueLater());
+    }
+
     @Test
     @Sql("/sql/tasks.sql")
     void getTask_TaskExist_ReturnTask() throws Exception {
@@ -101,7 +282,7 @@ class TaskControllerIntegrationTest {
         var req = MockMvcRequestBuilders.get("/tasks/1");
 
         // when
-        mockMvc.perform(req)
+        performWithin(1, req)
                 // then
                 .andDo(print())
                 .andExpectAll(
@@ -119,6 +300,69 @@ class TaskControllerIntegrationTest {
                 );
     }
 
+    @Test
+    @Sql("/sql/tasks.sql")
+    void createAndGetTask_AcceptCbor_ReturnCbor() throws Exception {
+        // given
+        var cborMapper = CBORMapper.builder().addModule(new JavaTimeModule()).build();
+        var task = new TaskData(0, "Задача в CBOR", "Описание", LocalDateTime.of(2024, 9, 26, 10, 0), false, 0, null);
+        var createReq = MockMvcRequestBuilders.post("/tasks")
+                .contentType("application/cbor")
+                .accept("application/cbor")
+                .content(cborMapper.writeValueAsBytes(task));
+
+        // when
+        var created = mockMvc.perform(createReq)
+                // then
+                .andExpectAll(
+                        status().isOk(),
+                        content().contentType("application/cbor")
+                )
+                .andReturn().getResponse().getContentAsByteArray();
+        var createdTask = cborMapper.readValue(created, TaskData.class);
+        assertEquals("Задача в CBOR", createdTask.getTitle());
+        assertEquals(task.getDueDate(), createdTask.getDueDate());
+
+        // when
+        var listed = mockMvc.perform(MockMvcRequestBuilders.get("/tasks").accept("application/cbor"))
+                // then
+                .andExpectAll(
+                        status().isOk(),
+                        content().contentType("application/cbor")
+                )
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(6, cborMapper.readValue(listed, TaskData[].class).length);
+    }
+
+    @Test
+    @Sql("/sql/tasks.sql")
+    void lookupTasks_SomeTasksMissing_ReturnTasksAndMissingIds() throws Exception {
+        // given
+        var req = MockMvcRequestBuilders.post("/tasks/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[3, 42, 1]");
+
+        // when
+        performWithin(2, req)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        content().contentType(MediaType.APPLICATION_JSON),
+                        content().json("""
+                                {
+                                "items": [
+                                {"id": 3, "title": "Задача №3", "completed": false},
+                                {"id": 1, "title": "Задача №1", "completed": true}
+                                ],
+                                "missing": [42]
+                                }
+                                """),
+                        jsonPath("$.items[0].id").value(3),
+                        jsonPath("$.items[1].id").value(1)
+                );
+    }
+
     @Test
     void getTask_TaskNotExist_ReturnBadReq() throws Exception {
         // given
@@ -149,16 +393,17 @@ class TaskControllerIntegrationTest {
                         """
                 );
 
-        // when
-        mockMvc.perform(reqBuilder)
+        // when: nextval (не чаще раза на 50 вставок), INSERT, чтение last_upd, INSERT в outbox
+        performWithin(4, reqBuilder)
                 // then
                 .andDo(print())
                 .andExpectAll(
                         status().isOk(),
+                        jsonPath("$.id").isNumber(),
+                        jsonPath("$.lastUpd").isNotEmpty(),
                         content().contentType(MediaType.APPLICATION_JSON),
                         content().json("""
                                 {
-                                "id": 1,
                                 "title": "Задача №5",
                                 "description": "Описание №5",
                                 "dueDate": "2024-04-26T10:00:00",
@@ -245,12 +490,13 @@ class TaskControllerIntegrationTest {
                         """
                 );
 
-        // when
-        mockMvc.perform(reqBuilder)
+        // when: UPDATE ... RETURNING, INSERT в outbox
+        performWithin(2, reqBuilder)
                 // then
                 .andDo(print())
                 .andExpectAll(
                         status().isOk(),
+                        jsonPath("$.lastUpd").isNotEmpty(),
                         content().contentType(MediaType.APPLICATION_JSON),
                         content().json("""
                                 {
@@ -265,6 +511,79 @@ class TaskControllerIntegrationTest {
     }
 
 
+    @Test
+    @Sql("/sql/tasks.sql")
+    void patchTask_TaskExist_ReturnPatchedTask() throws Exception {
+        // given
+        var reqBuilder = MockMvcRequestBuilders.patch("/tasks/3")
+                .contentType("application/merge-patch+json")
+                .content("""
+                        {
+                        "description": null,
+                        "completed": true
+                        }
+                        """
+                );
+
+        // when: чтение задачи, UPDATE, чтение last_upd, INSERT в outbox
+        performWithin(4, reqBuilder)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$.lastUpd").isNotEmpty(),
+                        content().contentType(MediaType.APPLICATION_JSON),
+                        content().json("""
+                                {
+                                "id": 3,
+                                "title": "Задача №3",
+                                "description": null,
+                                "dueDate": "2024-04-26T10:00:00",
+                                "completed": true
+                                }
+                                """)
+                );
+    }
+
+    @Test
+    @Sql("/sql/tasks.sql")
+    void updateTask_IfMatch_ReturnNewETagOrPreconditionFailed() throws Exception {
+        // given
+        var body = """
+                {
+                "title": "Новая задача",
+                "description": "Новое описание",
+                "dueDate": "2024-09-26T10:00:00",
+                "completed": false
+                }
+                """;
+        var notModifiedReq = MockMvcRequestBuilders.get("/tasks/1").header("If-None-Match", "\"0\"");
+        var updateReq = MockMvcRequestBuilders.put("/tasks/1")
+                .header("If-Match", "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+
+        // when
+        mockMvc.perform(notModifiedReq)
+                // then
+                .andExpectAll(
+                        status().isNotModified(),
+                        header().string("ETag", "\"0\""),
+                        content().string("")
+                );
+        mockMvc.perform(updateReq)
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        header().string("ETag", "\"1\"")
+                );
+        mockMvc.perform(updateReq)
+                .andDo(print())
+                .andExpectAll(
+                        status().isPreconditionFailed()
+                );
+    }
+
     @Test
     void updateTask_ReqIsInvalidId_ReturnErrorNoSuchTaskException() throws Exception {
         // given
@@ -295,12 +614,105 @@ class TaskControllerIntegrationTest {
         // given
         var req = MockMvcRequestBuilders.delete("/tasks/1");
 
-        // when
-        mockMvc.perform(req)
+        // when: DELETE, INSERT в outbox
+        performWithin(2, req)
                 // then
                 .andDo(print())
                 .andExpectAll(
                         status().isNoContent()
                 );
     }
-}
\ No newline at end of file
+
+    @Test
+    @Sql("/sql/tasks.sql")
+    void getTask_TaskArchived_ReturnTaskFromArchive() throws Exception {
+        // given
+        var archived = transactionTemplate.execute(status -> {
+            taskRepository.markArchiving();
+            return taskRepository.archiveCompleted(LocalDateTime.now().plusDays(1), 100);
+        });
+        assertEquals(3, archived);
+
+        // when
+        performWithin(2, MockMvcRequestBuilders.get("/tasks/1"))
+                // then
+                .andExpectAll(
+                        status().isOk(),
+                        content().json("""
+                                {
+                                "id": 1,
+                                "title": "Задача №1",
+                                "completed": true
+                                }
+                                """)
+                );
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks"))
+                .andExpect(content().json("[{\"id\": 3}, {\"id\": 5}]"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks/sync"))
+                .andExpectAll(
+                        jsonPath("$.changed.length()").value(5),
+                        jsonPath("$.deleted").isEmpty()
+                );
+        mockMvc.perform(MockMvcRequestBuilders.delete("/tasks/1"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks/1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Sql("/sql/tasks.sql")
+    void updateTask_TaskArchived_ReturnConflict() throws Exception {
+        // given
+        transactionTemplate.execute(status -> {
+            taskRepository.markArchiving();
+            return taskRepository.archiveCompleted(LocalDateTime.now().plusDays(1), 100);
+        });
+        var etag = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        var updateReq = MockMvcRequestBuilders.put("/tasks/1")
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {
+                        "title": "Новая задача",
+                        "description": "Новое описание",
+                        "dueDate": "2024-09-26T10:00:00",
+                        "completed": false
+                        }
+                        """);
+        var patchReq = MockMvcRequestBuilders.patch("/tasks/1")
+                .contentType("application/merge-patch+json")
+                .content("{\"completed\": false}");
+
+        // when
+        mockMvc.perform(updateReq)
+                // then
+                .andDo(print())
+                .andExpectAll(
+                        status().isConflict(),
+                        jsonPath("$.reason").value("archived")
+                );
+        mockMvc.perform(patchReq)
+                .andExpectAll(
+                        status().isConflict(),
+                        jsonPath("$.reason").value("archived")
+                );
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks/1"))
+                .andExpect(content().json("{\"id\": 1, \"completed\": true}"));
+    }
+
+    /**
+     * Выполнить запрос и проверить, что он выполнил не больше maxStatements SQL-запросов.
+     *
+     * @return ResultActions
+     */
+    private ResultActions performWithin(int maxStatements, RequestBuilder request) throws Exception {
+        var before = statementCounter.current();
+        var result = mockMvc.perform(request);
+        var statements = statementCounter.current() - before;
+        assertTrue(statements <= maxStatements,
+                () -> "Ожидалось не больше " + maxStatements + " SQL-запросов, выполнено " + statements);
+        return result;
+    }
+}
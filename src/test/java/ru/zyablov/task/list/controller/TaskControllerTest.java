@@ -7,11 +7,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatusCode;
 import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.dto.TaskFilter;
+import ru.zyablov.task.list.dto.TaskLookupResult;
+import ru.zyablov.task.list.dto.TaskPage;
+import ru.zyablov.task.list.dto.TaskPatch;
 import ru.zyablov.task.list.exception.NoSuchTaskException;
+import ru.zyablov.task.list.exception.TaskVersionMismatchException;
 import ru.zyablov.task.list.service.TaskService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -33,44 +39,82 @@ class TaskControllerTest {
     void getListTasks_TasksExist_ReturnTasks() {
         // given
         var tasks = List.of(
-                new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true),
-                new TaskData(2L, "Задача 2", "Описание 2", LocalDateTime.MAX, true),
-                new TaskData(3L, "Задача 3", "Описание 3", LocalDateTime.MAX, true)
+                new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true, 0L, null),
+                new TaskData(2L, "Задача 2", "Описание 2", LocalDateTime.MAX, true, 0L, null),
+                new TaskData(3L, "Задача 3", "Описание 3", LocalDateTime.MAX, true, 0L, null)
         );
-        doReturn(tasks).when(taskService).findAll();
+        doReturn(new TaskPage(tasks, "cursor")).when(taskService).findAll(new TaskFilter(), null, 3);
         // when
-        var res = controller.getListTasks();
+        var res = controller.getListTasks(null, null, null, null, 3);
 
         // then
         assertEquals(HttpStatusCode.valueOf(200), res.getStatusCode());
         assertEquals(tasks, res.getBody());
-        verify(taskService).findAll();
+        assertEquals("cursor", res.getHeaders().getFirst(TaskController.NEXT_CURSOR_HEADER));
+        verify(taskService).findAll(new TaskFilter(), null, 3);
         verifyNoMoreInteractions(taskService);
     }
 
     @Test
     void getListTasks_TasksNotExist_ReturnEmptyList() {
         // given
-        var tasks = List.of();
-        doReturn(tasks).when(taskService).findAll();
+        var tasks = List.<TaskData>of();
+        var filter = new TaskFilter(false, null, null);
+        doReturn(new TaskPage(tasks, null)).when(taskService).findAll(filter, null, 50);
         // when
-        var res = controller.getListTasks();
+        var res = controller.getListTasks(false, null, null, null, 50);
 
         // then
         assertEquals(HttpStatusCode.valueOf(200), res.getStatusCode());
         assertEquals(tasks, res.getBody());
-        verify(taskService).findAll();
+        assertNull(res.getHeaders().getFirst(TaskController.NEXT_CURSOR_HEADER));
+        verify(taskService).findAll(filter, null, 50);
         verifyNoMoreInteractions(taskService);
     }
 
     @Test
-    void getTask_TaskExist_ReturnTask() throws NoSuchTaskException {
+    void lookupTasks_SomeTasksMissing_ReturnTasksAndMissingIds() {
         // given
-        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true);
+        var result = new TaskLookupResult(
+                List.of(new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true, 0L, null)),
+                List.of(2L));
+        doReturn(result).when(taskService).findAllById(List.of(1L, 2L));
+
+        // when
+        var res = controller.lookupTasks(List.of(1L, 2L));
+
+        // then
+        assertEquals(HttpStatusCode.valueOf(200), res.getStatusCode());
+        assertEquals(result, res.getBody());
+        verify(taskService).findAllById(List.of(1L, 2L));
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    void searchTasks_TasksFound_ReturnTasksAndNextCursor() {
+        // given
+        var tasks = List.of(new TaskData(1L, "Отчёт", "Квартальный отчёт", LocalDateTime.MAX, false, 0L, null));
+        doReturn(new TaskPage(tasks, "cursor")).when(taskService).search("отчёт", null, 1);
+
+        // when
+        var res = controller.searchTasks("отчёт", null, 1);
+
+        // then
+        assertEquals(HttpStatusCode.valueOf(200), res.getStatusCode());
+        assertEquals(tasks, res.getBody());
+        assertEquals("cursor", res.getHeaders().getFirst(TaskController.NEXT_CURSOR_HEADER));
+        verify(taskService).search("отчёт", null, 1);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    void getTask_TaskExist_ReturnTask() throws NoSuchTaskException, TaskVersionMismatchException {
+        // given
+        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true, 0L, null);
         doReturn(task).when(taskService).findById(task.getId());
 
         // when
-        var res = controller.getTask(task.getId());
+        var res = controller.getTask(task.getId(), null);
 
         //then
         assertEquals(HttpStatusCode.valueOf(200), res.getStatusCode());
@@ -80,14 +124,14 @@ class TaskControllerTest {
     }
 
     @Test
-    void getTask_TaskNotExist_ReturnErrorNoSuchTaskException() throws NoSuchTaskException {
+    void getTask_TaskNotExist_ReturnErrorNoSuchTaskException() throws NoSuchTaskException, TaskVersionMismatchException {
         // given
         var id = 1L;
         var message = "Не найден задача с id = " + id;
         doThrow(new NoSuchTaskException(message)).when(taskService).findById(id);
 
         // when
-        var res = controller.getTask(id);
+        var res = controller.getTask(id, null);
 
         //then
         assertEquals(HttpStatusCode.valueOf(400), res.getStatusCode());
@@ -96,10 +140,46 @@ class TaskControllerTest {
         verifyNoMoreInteractions(taskService);
     }
 
+    @Test
+    void getTask_IfNoneMatchIsCurrentVersion_ReturnNotModified() throws NoSuchTaskException {
+        // given
+        var id = 1L;
+        doReturn(Optional.of(3L)).when(taskService).findVersionById(id);
+
+        // when
+        var res = controller.getTask(id, "\"3\"");
+
+        //then
+        assertEquals(HttpStatusCode.valueOf(304), res.getStatusCode());
+        assertEquals("\"3\"", res.getHeaders().getETag());
+        assertNull(res.getBody());
+        verify(taskService).findVersionById(id);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    void getTask_IfNoneMatchIsStale_ReturnTaskWithETag() throws NoSuchTaskException {
+        // given
+        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true, 4L, null);
+        doReturn(Optional.of(4L)).when(taskService).findVersionById(task.getId());
+        doReturn(task).when(taskService).findById(task.getId());
+
+        // when
+        var res = controller.getTask(task.getId(), "W/\"3\"");
+
+        //then
+        assertEquals(HttpStatusCode.valueOf(200), res.getStatusCode());
+        assertEquals("\"4\"", res.getHeaders().getETag());
+        assertEquals(task, res.getBody());
+        verify(taskService).findVersionById(task.getId());
+        verify(taskService).findById(task.getId());
+        verifyNoMoreInteractions(taskService);
+    }
+
     @Test
     void createTask_ReqValid_ReturnTask() {
         // given
-        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true);
+        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true, 0L, null);
         doReturn(task).when(taskService).create(task);
 
         // when
@@ -113,35 +193,70 @@ class TaskControllerTest {
     }
 
     @Test
-    void updateTask_ReqIsValid_ReturnTask() throws NoSuchTaskException {
+    void updateTask_ReqIsValid_ReturnTask() throws NoSuchTaskException, TaskVersionMismatchException {
         // given
-        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true);
-        doReturn(task).when(taskService).update(task.getId(), task);
+        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true, 0L, null);
+        doReturn(task).when(taskService).update(task.getId(), task, null);
 
         // when
-        var res = controller.updateTask(task.getId(), task);
+        var res = controller.updateTask(task.getId(), task, null);
 
         //then
         assertEquals(HttpStatusCode.valueOf(200), res.getStatusCode());
         assertEquals(task, res.getBody());
-        verify(taskService).update(task.getId(), task);
+        verify(taskService).update(task.getId(), task, null);
         verifyNoMoreInteractions(taskService);
     }
 
     @Test
-    void updateTask_ReqIsInvalid_ReturnErrorNoSuchTaskException() throws NoSuchTaskException {
+    void updateTask_ReqIsInvalid_ReturnErrorNoSuchTaskException() throws NoSuchTaskException, TaskVersionMismatchException {
         // given
-        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true);
+        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true, 0L, null);
         var message = "Не найден задача с id = " + task.getId();
-        doThrow(new NoSuchTaskException(message)).when(taskService).update(task.getId(), task);
+        doThrow(new NoSuchTaskException(message)).when(taskService).update(task.getId(), task, null);
 
         // when
-        var res = controller.updateTask(task.getId(), task);
+        var res = controller.updateTask(task.getId(), task, null);
 
         //then
         assertEquals(HttpStatusCode.valueOf(400), res.getStatusCode());
         assertEquals(message, res.getBody());
-        verify(taskService).update(task.getId(), task);
+        verify(taskService).update(task.getId(), task, null);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    void patchTask_ReqIsValid_ReturnTask() throws NoSuchTaskException, TaskVersionMismatchException {
+        // given
+        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true, 0L, null);
+        var patch = new TaskPatch();
+        patch.setCompleted(true);
+        doReturn(task).when(taskService).patch(task.getId(), patch, null);
+
+        // when
+        var res = controller.patchTask(task.getId(), patch, null);
+
+        //then
+        assertEquals(HttpStatusCode.valueOf(200), res.getStatusCode());
+        assertEquals(task, res.getBody());
+        verify(taskService).patch(task.getId(), patch, null);
+        verifyNoMoreInteractions(taskService);
+    }
+
+    @Test
+    void updateTask_IfMatchIsStale_ReturnPreconditionFailed() throws NoSuchTaskException, TaskVersionMismatchException {
+        // given
+        var task = new TaskData(1L, "Задача 1", "Описание 1", LocalDateTime.MAX, true, 0L, null);
+        var message = "Задача с id = 1 была изменена";
+        doThrow(new TaskVersionMismatchException(message)).when(taskService).update(task.getId(), task, 2L);
+
+        // when
+        var res = controller.updateTask(task.getId(), task, "\"2\"");
+
+        //then
+        assertEquals(HttpStatusCode.valueOf(412), res.getStatusCode());
+        assertEquals(message, res.getBody());
+        verify(taskService).update(task.getId(), task, 2L);
         verifyNoMoreInteractions(taskService);
     }
 
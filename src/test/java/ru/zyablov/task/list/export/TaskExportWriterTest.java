@@ -0,0 +1,70 @@
+package ru.zyablov.task.list.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.exception.UnsupportedExportFormatException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaskExportWriterTest {
+
+    ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void write_FormatNdjson_WriteOneJsonPerLine() throws IOException {
+        // given
+        var out = new ByteArrayOutputStream();
+        var writer = new TaskExportWriter(ExportFormat.NDJSON, out, objectMapper);
+        var dueDate = LocalDateTime.of(2024, 4, 26, 10, 0);
+
+        // when
+        writer.writeHeader();
+        writer.write(new TaskData(1L, "Задача 1", "Описание 1", dueDate, true, 0L, null));
+        writer.write(new TaskData(2L, "Задача 2", null, dueDate, false, 0L, null));
+        writer.flush();
+
+        // then
+        assertEquals("""
+                {"id":1,"title":"Задача 1","description":"Описание 1","dueDate":"2024-04-26T10:00:00","completed":true,"lastUpd":null}
+                {"id":2,"title":"Задача 2","description":null,"dueDate":"2024-04-26T10:00:00","completed":false,"lastUpd":null}
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void write_FormatCsv_WriteHeaderAndEscapedRows() throws IOException {
+        // given
+        var out = new ByteArrayOutputStream();
+        var writer = new TaskExportWriter(ExportFormat.CSV, out, objectMapper);
+        var dueDate = LocalDateTime.of(2024, 4, 26, 10, 0);
+
+        // when
+        writer.writeHeader();
+        writer.write(new TaskData(1L, "Задача 1", "Описание, \"с кавычками\"", dueDate, true, 0L, null));
+        writer.write(new TaskData(2L, "Задача 2", null, dueDate, false, 0L, null));
+        writer.flush();
+
+        // then
+        assertEquals("""
+                id,title,description,dueDate,completed
+                1,Задача 1,"Описание, \"\"с кавычками\"\"",2024-04-26T10:00,true
+                2,Задача 2,,2024-04-26T10:00,false
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void of_FormatUnknown_ReturnUnsupportedExportFormatException() {
+        assertEquals(ExportFormat.CSV, ExportFormat.of(" Csv "));
+        assertThrows(UnsupportedExportFormatException.class, () -> ExportFormat.of("xml"));
+    }
+}
@@ -0,0 +1,53 @@
+package ru.zyablov.task.list.limit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.zyablov.task.list.config.TaskConcurrencyProperties;
+import ru.zyablov.task.list.exception.ConcurrencyLimitExceededException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimitInterceptorTest {
+
+    @Test
+    void preHandle_LimitReached_ReturnConcurrencyLimitExceededException() throws InterruptedException {
+        // given
+        var properties = new TaskConcurrencyProperties();
+        properties.setMaxConcurrent(1);
+        properties.setAcquireTimeout(Duration.ofMillis(10));
+        var interceptor = new ConcurrencyLimitInterceptor(properties);
+        var response = new MockHttpServletResponse();
+        var first = new MockHttpServletRequest();
+        var second = new MockHttpServletRequest();
+
+        // when
+        assertTrue(interceptor.preHandle(first, response, new Object()));
+
+        // then
+        assertThrows(ConcurrencyLimitExceededException.class, () -> interceptor.preHandle(second, response, new Object()));
+        assertEquals(0, interceptor.availablePermits());
+    }
+
+    @Test
+    void afterCompletion_PermitHeld_ReleaseOnce() throws InterruptedException {
+        // given
+        var properties = new TaskConcurrencyProperties();
+        properties.setMaxConcurrent(1);
+        var interceptor = new ConcurrencyLimitInterceptor(properties);
+        var request = new MockHttpServletRequest();
+        var response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+
+        // when
+        interceptor.afterCompletion(request, response, new Object(), null);
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // then
+        assertEquals(1, interceptor.availablePermits());
+    }
+}
@@ -0,0 +1,64 @@
+package ru.zyablov.task.list.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.zyablov.task.list.config.TaskStatementsProperties;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RequestStatementsInterceptorTest {
+
+    StatementCounter counter = new StatementCounter();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    RequestStatementsInterceptor interceptor =
+            new RequestStatementsInterceptor(counter, meterRegistry, new TaskStatementsProperties());
+
+    @Test
+    void afterCompletion_StatementsExecuted_RecordCountByUri() {
+        // given
+        var request = new MockHttpServletRequest("PUT", "/tasks/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/tasks/{id}");
+        var response = new MockHttpServletResponse();
+        executeStatement();
+
+        // when
+        interceptor.preHandle(request, response, null);
+        executeStatement();
+        executeStatement();
+        interceptor.afterCompletion(request, response, null, null);
+
+        // then
+        var summary = meterRegistry.get("task.http.statements").tag("uri", "/tasks/{id}").tag("method", "PUT").summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+    }
+
+    @Test
+    void afterCompletion_AsyncRequest_DoNotRecord() {
+        // given
+        var request = new MockHttpServletRequest("GET", "/tasks/changes");
+        var response = new MockHttpServletResponse();
+
+        // when
+        interceptor.preHandle(request, response, null);
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        interceptor.preHandle(request, response, null);
+        executeStatement();
+        interceptor.afterCompletion(request, response, null, null);
+
+        // then
+        assertNull(meterRegistry.find("task.http.statements").summary());
+    }
+
+    private void executeStatement() {
+        counter.afterQuery(null, List.of());
+    }
+}
@@ -0,0 +1,54 @@
+package ru.zyablov.task.list.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверка промежуточных состояний схемы: миграции применяются до нужной версии в отдельной схеме.
+ */
+@SpringBootTest
+class TaskMigrationIntegrationTest {
+    private static final String SCHEMA = "migration_v1_0_3";
+
+    @Autowired
+    DataSource dataSource;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void migrateTo103_ShortOrEmptyDescription_SaveTask() {
+        // given
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(SCHEMA)
+                .target("1.0.3")
+                .load()
+                .migrate();
+
+        // when
+        var inserted = jdbcTemplate.update("""
+                INSERT INTO migration_v1_0_3.task (id, created, last_upd, title, description, due_date, completed)
+                VALUES (1, localtimestamp, localtimestamp, 'Задача 1', '', localtimestamp, false),
+                       (2, localtimestamp, localtimestamp, 'Задача 2', 'ab', localtimestamp, true),
+                       (3, localtimestamp, localtimestamp, 'Задача 3', NULL, localtimestamp, false)""");
+
+        // then
+        assertEquals(3, inserted);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_constraint WHERE conrelid = 'migration_v1_0_3.task'::regclass AND contype = 'c'",
+                Integer.class));
+    }
+}
@@ -0,0 +1,82 @@
+package ru.zyablov.task.list.outbox;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.zyablov.task.list.config.TaskOutboxProperties;
+import ru.zyablov.task.list.dto.ChangeType;
+import ru.zyablov.task.list.entity.TaskOutboxMessage;
+import ru.zyablov.task.list.repository.TaskOutboxRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TaskOutboxPublisherTest {
+
+    @Mock
+    TaskOutboxRepository outboxRepository;
+    @Mock
+    TaskOutboxSink sink;
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    TaskOutboxProperties properties = new TaskOutboxProperties();
+    TaskOutboxPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(2);
+        publisher = new TaskOutboxPublisher(outboxRepository, sink, transactionTemplate, properties);
+        doAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+    }
+
+    @Test
+    void publishPending_FullBatches_SendUntilOutboxDrained() {
+        // given
+        var first = List.of(message(1), message(2));
+        var second = List.of(message(3));
+        doReturn(first, second).when(outboxRepository).lockBatch(2);
+
+        // when
+        publisher.publishPending();
+
+        // then
+        verify(sink).send(first);
+        verify(sink).send(second);
+        verify(outboxRepository).deleteAllInBatch(first);
+        verify(outboxRepository).deleteAllInBatch(second);
+    }
+
+    @Test
+    void publishBatch_SinkFailed_KeepMessages() {
+        // given
+        var messages = List.of(message(1));
+        doReturn(messages).when(outboxRepository).lockBatch(2);
+        doThrow(new IllegalStateException("недоступен")).when(sink).send(messages);
+
+        // when
+        var sent = publisher.publishBatch(2);
+
+        // then
+        assertEquals(0, sent);
+        verify(outboxRepository, never()).deleteAllInBatch(anyList());
+    }
+
+    private static TaskOutboxMessage message(long id) {
+        return TaskOutboxMessage.builder().id(id).taskId(id).changeType(ChangeType.DELETED).build();
+    }
+}
@@ -0,0 +1,74 @@
+package ru.zyablov.task.list.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.zyablov.task.list.changes.TaskChangedEvent;
+import ru.zyablov.task.list.entity.TaskOutboxMessage;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class TaskOutboxWriterTest {
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    TaskOutboxWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onTaskChanged_SeveralChangesInTransaction_WriteOneBatchBeforeCommit() throws Exception {
+        // given
+        writer = new TaskOutboxWriter(jdbcTemplate, new ObjectMapper());
+        TransactionSynchronizationManager.initSynchronization();
+        writer.onTaskChanged(TaskChangedEvent.deleted(1L));
+        writer.onTaskChanged(TaskChangedEvent.deleted(2L));
+
+        // when
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // then
+        var messages = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), messages.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(2, messages.getValue().size());
+        assertEquals(2L, ((TaskOutboxMessage) messages.getValue().toArray()[1]).getTaskId());
+        assertNull(TransactionSynchronizationManager.getResource(writer));
+    }
+
+    @Test
+    void onTaskChanged_NoTransaction_SkipEvent() throws Exception {
+        // given
+        writer = new TaskOutboxWriter(jdbcTemplate, new ObjectMapper());
+
+        // when
+        writer.onTaskChanged(TaskChangedEvent.deleted(1L));
+
+        // then
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,164 @@
+package ru.zyablov.task.list.overdue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.zyablov.task.list.config.TaskOverdueProperties;
+import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.entity.Task;
+import ru.zyablov.task.list.repository.TaskRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OverdueTaskSchedulerTest {
+
+    @Mock
+    TaskRepository taskRepository;
+    @Mock
+    OverdueTaskHandler handler;
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    TaskOverdueProperties properties = new TaskOverdueProperties();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    OverdueTaskScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBatchSize(2);
+        properties.setBucket(Duration.ofHours(1));
+        scheduler = new OverdueTaskScheduler(taskRepository, handler, transactionTemplate, properties, meterRegistry);
+    }
+
+    @Test
+    void processOverdue_FullBatch_ClaimBucketUntilDrained() {
+        // given
+        doAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+        var earliest = LocalDateTime.now().minusMinutes(30);
+        doReturn(Optional.of(earliest), Optional.empty()).when(taskRepository).findEarliestPendingDueDate();
+        doReturn(List.of(task(1, earliest), task(2, earliest)), List.of(task(3, earliest)))
+                .when(taskRepository).claimOverdue(eq(earliest), any(), eq(2));
+
+        // when
+        scheduler.processOverdue();
+
+        // then
+        verify(taskRepository, times(2)).claimOverdue(eq(earliest), any(), eq(2));
+        verify(handler, times(2)).onOverdue(anyList());
+        assertEquals(3, meterRegistry.get("task.overdue.notified").counter().count());
+        assertEquals(0, meterRegistry.get("task.overdue.lag").gauge().value());
+    }
+
+    @Test
+    void processOverdue_NoPendingTasks_DoNotClaim() {
+        // given
+        doReturn(Optional.of(LocalDateTime.now().plusDays(1))).when(taskRepository).findEarliestPendingDueDate();
+
+        // when
+        scheduler.processOverdue();
+
+        // then
+        verify(taskRepository, never()).claimOverdue(any(), any(), anyInt());
+        verify(handler, never()).onOverdue(anyList());
+    }
+
+    @Test
+    void processOverdue_HandlerFailedOnOneTask_ProcessOthersAndContinue() {
+        // given
+        properties.setBatchSize(3);
+        properties.setMaxAttempts(5);
+        doAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+        var earliest = LocalDateTime.now().minusHours(2);
+        var poison = task(2, earliest.plusMinutes(1));
+        doReturn(Optional.of(earliest), Optional.of(poison.getDueDate())).when(taskRepository).findEarliestPendingDueDate();
+        doReturn(List.of(task(1, earliest), poison, task(3, earliest.plusMinutes(2))))
+                .when(taskRepository).claimOverdue(eq(earliest), any(), eq(3));
+        doReturn(List.of(task(4, earliest.plusHours(1))))
+                .when(taskRepository).claimOverdue(eq(earliest.plusHours(1)), any(), eq(3));
+        doReturn(Optional.of(task(1, earliest))).when(taskRepository).claimOverdueById(1L);
+        doReturn(Optional.of(poison)).when(taskRepository).claimOverdueById(2L);
+        doReturn(Optional.of(task(3, earliest.plusMinutes(2)))).when(taskRepository).claimOverdueById(3L);
+        doReturn(Optional.of(false)).when(taskRepository).recordOverdueFailure(2L, 5);
+        doAnswer(inv -> {
+            List<TaskData> tasks = inv.getArgument(0);
+            if (tasks.stream().anyMatch(task -> task.getId() == 2L)) {
+                throw new IllegalStateException("обработчик недоступен");
+            }
+            return null;
+        }).when(handler).onOverdue(anyList());
+
+        // when
+        scheduler.processOverdue();
+
+        // then
+        verify(taskRepository).recordOverdueFailure(2L, 5);
+        verify(taskRepository, never()).recordOverdueFailure(eq(1L), anyInt());
+        verify(taskRepository).claimOverdue(eq(earliest.plusHours(1)), any(), eq(3));
+        assertEquals(3, meterRegistry.get("task.overdue.notified").counter().count());
+        assertEquals(2, meterRegistry.get("task.overdue.failed").counter().count());
+        assertEquals(0, meterRegistry.get("task.overdue.abandoned").counter().count());
+    }
+
+    @Test
+    void processBatch_TaskFailedMaxAttempts_MarkAbandoned() {
+        // given
+        doAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+        var from = LocalDateTime.now().minusHours(1);
+        var to = LocalDateTime.now();
+        doReturn(List.of(task(1, from))).when(taskRepository).claimOverdue(from, to, 2);
+        doReturn(Optional.of(task(1, from))).when(taskRepository).claimOverdueById(1L);
+        doReturn(Optional.of(true)).when(taskRepository).recordOverdueFailure(1L, 5);
+        doThrow(new IllegalStateException("обработчик недоступен")).when(handler).onOverdue(anyList());
+
+        // when
+        var processed = scheduler.processBatch(from, to, 2);
+
+        // then
+        assertEquals(0, processed);
+        assertEquals(1, meterRegistry.get("task.overdue.abandoned").counter().count());
+    }
+
+    @Test
+    void processBatch_HandlerFailed_CountFailure() {
+        // given
+        var from = LocalDateTime.now().minusHours(1);
+        var to = LocalDateTime.now();
+        doThrow(new IllegalStateException("недоступен")).when(transactionTemplate).execute(any());
+
+        // when
+        var processed = scheduler.processBatch(from, to, 2);
+
+        // then
+        assertEquals(-1, processed);
+        assertEquals(1, meterRegistry.get("task.overdue.failed").counter().count());
+        assertEquals(0, meterRegistry.get("task.overdue.notified").counter().count());
+    }
+
+    private static Task task(long id, LocalDateTime dueDate) {
+        return Task.builder().id(id).title("Задача " + id).dueDate(dueDate).build();
+    }
+}
@@ -0,0 +1,75 @@
+package ru.zyablov.task.list.replica;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    DataSource primary;
+    @Mock
+    DataSource firstReplica;
+    @Mock
+    DataSource secondReplica;
+    @Mock
+    Connection primaryConnection;
+    @Mock
+    Connection firstConnection;
+    @Mock
+    Connection secondConnection;
+
+    @Test
+    void getConnection_ReplicasAvailable_RoundRobinSkippingLagging() throws SQLException {
+        // given
+        var first = new ReplicaDataSources.Replica("replica-1", firstReplica);
+        var second = new ReplicaDataSources.Replica("replica-2", secondReplica);
+        var lagging = new ReplicaDataSources.Replica("replica-3", primary);
+        first.update(0, true);
+        second.update(0.5, true);
+        lagging.update(30, false);
+        doReturn(firstConnection).when(firstReplica).getConnection();
+        doReturn(secondConnection).when(secondReplica).getConnection();
+        var dataSource = new ReplicaRoutingDataSource(new ReplicaDataSources(primary, List.of(first, second, lagging)));
+
+        // when
+        var connections = List.of(dataSource.getConnection(), dataSource.getConnection(), dataSource.getConnection());
+
+        // then
+        assertSame(firstConnection, connections.get(0));
+        assertSame(secondConnection, connections.get(1));
+        assertSame(firstConnection, connections.get(2));
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void getConnection_ReplicaFailed_FallBackToPrimaryAndExcludeReplica() throws SQLException {
+        // given
+        var replica = new ReplicaDataSources.Replica("replica-1", firstReplica);
+        replica.update(0, true);
+        doThrow(new SQLException("connection refused")).when(firstReplica).getConnection();
+        doReturn(primaryConnection).when(primary).getConnection();
+        var dataSource = new ReplicaRoutingDataSource(new ReplicaDataSources(primary, List.of(replica)));
+
+        // when
+        var connection = dataSource.getConnection();
+
+        // then
+        assertSame(primaryConnection, connection);
+        assertFalse(replica.isAvailable());
+    }
+}
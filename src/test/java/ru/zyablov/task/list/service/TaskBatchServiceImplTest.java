@@ -0,0 +1,208 @@
+package ru.zyablov.task.list.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.zyablov.task.list.changes.TaskChangedEvent;
+import ru.zyablov.task.list.config.TaskBatchProperties;
+import ru.zyablov.task.list.dto.BatchStatus;
+import ru.zyablov.task.list.dto.TaskBatchResult;
+import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.entity.Task;
+import ru.zyablov.task.list.exception.BatchTooLargeException;
+import ru.zyablov.task.list.repository.TaskRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class TaskBatchServiceImplTest {
+
+    @Mock
+    TaskRepository taskRepository;
+    @Mock
+    EntityManager entityManager;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    TaskBatchProperties properties = new TaskBatchProperties();
+    TaskBatchServiceImpl taskBatchService;
+
+    @BeforeEach
+    void setUp() {
+        properties.setChunkSize(2);
+        properties.setMaxSize(5);
+        taskBatchService = new TaskBatchServiceImpl(taskRepository, entityManager, validator, transactionTemplate, properties, eventPublisher);
+        lenient().doAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+        lenient().doCallRealMethod().when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void createAll_TasksValidAndInvalid_ReturnResultPerTask() {
+        // given
+        var dueDate = LocalDateTime.now();
+        var tasks = List.of(
+                new TaskData(0L, "Задача 1", "Описание 1", dueDate, false, 0L, null),
+                new TaskData(0L, "З", "Описание 2", dueDate, false, 0L, null),
+                new TaskData(0L, "Задача 3", "Описание 3", dueDate, true, 0L, null)
+        );
+
+        // when
+        var res = taskBatchService.createAll(tasks);
+
+        // then
+        assertEquals(List.of(
+                TaskBatchResult.builder().index(0).id(0L).status(BatchStatus.CREATED).task(tasks.get(0)).build(),
+                TaskBatchResult.builder().index(1).status(BatchStatus.INVALID)
+                        .errors(List.of("Размер title должен находиться в диапазоне от 3 до 200 символов")).build(),
+                TaskBatchResult.builder().index(2).id(0L).status(BatchStatus.CREATED).task(tasks.get(2)).build()
+        ), res);
+        verify(taskRepository, times(2)).saveAll(anyList());
+        verify(entityManager, times(2)).flush();
+    }
+
+    @Test
+    void createAll_ChunkFailed_ReturnFailedForChunkOnly() {
+        // given
+        var dueDate = LocalDateTime.now();
+        var tasks = List.of(
+                new TaskData(0L, "Задача 1", "Описание 1", dueDate, false, 0L, null),
+                new TaskData(0L, "Задача 2", "Описание 2", dueDate, false, 0L, null),
+                new TaskData(0L, "Задача 3", "Описание 3", dueDate, true, 0L, null)
+        );
+        doThrow(new DataIntegrityViolationException("ошибка"))
+                .doReturn(List.of())
+                .when(taskRepository).saveAll(anyList());
+
+        // when
+        var res = taskBatchService.createAll(tasks);
+
+        // then
+        assertEquals(BatchStatus.FAILED, res.get(0).getStatus());
+        assertEquals(List.of("ошибка"), res.get(0).getErrors());
+        assertEquals(BatchStatus.FAILED, res.get(1).getStatus());
+        assertEquals(BatchStatus.CREATED, res.get(2).getStatus());
+    }
+
+    @Test
+    void updateAll_TaskNotExist_ReturnNotFound() {
+        // given
+        var now = LocalDateTime.now();
+        var existing = new Task(1L, now, now, "Задача 1", "Описание 1", now, false, 0L);
+        var tasks = List.of(
+                new TaskData(1L, "Новая задача", "Новое описание", now.plusDays(1), true, 0L, now),
+                new TaskData(2L, "Задача 2", "Описание 2", now, false, 0L, null)
+        );
+        doReturn(List.of(existing)).when(taskRepository).findAllById(Set.of(1L, 2L));
+
+        // when
+        var res = taskBatchService.updateAll(tasks);
+
+        // then
+        assertEquals(List.of(
+                TaskBatchResult.builder().index(0).id(1L).status(BatchStatus.UPDATED).task(tasks.get(0)).build(),
+                TaskBatchResult.builder().index(1).id(2L).status(BatchStatus.NOT_FOUND).build()
+        ), res);
+        assertEquals("Новая задача", existing.getTitle());
+        assertEquals(true, existing.isCompleted());
+        verify(entityManager).flush();
+    }
+
+    @Test
+    void updateAll_IdRepeatedInChunk_ReturnInvalidForRepeat() {
+        // given
+        properties.setChunkSize(5);
+        var now = LocalDateTime.now();
+        var existing = new Task(1L, now, now, "Задача 1", "Описание 1", now, false, 0L);
+        var tasks = List.of(
+                new TaskData(1L, "Новая задача", "Новое описание", now, true, 0L, now),
+                new TaskData(1L, "Другая задача", "Другое описание", now, false, 0L, null)
+        );
+        doReturn(List.of(existing)).when(taskRepository).findAllById(Set.of(1L));
+
+        // when
+        var res = taskBatchService.updateAll(tasks);
+
+        // then
+        assertEquals(List.of(
+                TaskBatchResult.builder().index(0).id(1L).status(BatchStatus.UPDATED).task(tasks.get(0)).build(),
+                TaskBatchResult.builder().index(1).id(1L).status(BatchStatus.INVALID)
+                        .errors(List.of("id 1 повторяется в запросе")).build()
+        ), res);
+        assertEquals("Новая задача", existing.getTitle());
+        verify(eventPublisher, times(1)).publishEvent(any(TaskChangedEvent.class));
+    }
+
+    @Test
+    void deleteAll_SomeTasksExist_ReturnDeletedAndNotFound() {
+        // given
+        doReturn(List.of(1L)).when(taskRepository).findExistingIds(List.of(1L, 2L));
+        doReturn(List.of()).when(taskRepository).findExistingIds(List.of(3L));
+
+        // when
+        var res = taskBatchService.deleteAll(List.of(1L, 2L, 3L));
+
+        // then
+        assertEquals(List.of(
+                TaskBatchResult.builder().index(0).id(1L).status(BatchStatus.DELETED).build(),
+                TaskBatchResult.builder().index(1).id(2L).status(BatchStatus.NOT_FOUND).build(),
+                TaskBatchResult.builder().index(2).id(3L).status(BatchStatus.NOT_FOUND).build()
+        ), res);
+        verify(taskRepository).deleteAllByIdInBatch(Set.of(1L));
+        verify(taskRepository).deleteAllByIdInBatch(Set.of());
+    }
+
+    @Test
+    void deleteAll_TaskArchived_ReturnDeleted() {
+        // given
+        doReturn(List.of(1L)).when(taskRepository).findExistingIds(List.of(1L, 2L));
+        doReturn(List.of(2L)).when(taskRepository).removeArchivedByIds(List.of(2L));
+
+        // when
+        var res = taskBatchService.deleteAll(List.of(1L, 2L));
+
+        // then
+        assertEquals(List.of(
+                TaskBatchResult.builder().index(0).id(1L).status(BatchStatus.DELETED).build(),
+                TaskBatchResult.builder().index(1).id(2L).status(BatchStatus.DELETED).build()
+        ), res);
+        verify(taskRepository).deleteAllByIdInBatch(Set.of(1L));
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(2L));
+    }
+
+    @Test
+    void deleteAll_TooManyIds_ReturnBatchTooLargeException() {
+        // when
+        assertThrows(BatchTooLargeException.class, () -> taskBatchService.deleteAll(Collections.nCopies(6, 1L)));
+
+        // then
+        verifyNoInteractions(taskRepository);
+    }
+}
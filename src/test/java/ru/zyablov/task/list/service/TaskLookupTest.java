@@ -0,0 +1,175 @@
+package ru.zyablov.task.list.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.zyablov.task.list.config.TaskLookupProperties;
+import ru.zyablov.task.list.entity.Task;
+import ru.zyablov.task.list.repository.TaskRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TaskLookupTest {
+
+    @Mock
+    TaskRepository taskRepository;
+
+    TaskLookupProperties properties = new TaskLookupProperties();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void findById_NoOtherLookupInFlight_ReadWithoutWaitingWindow() {
+        // given
+        properties.setWindow(Duration.ofSeconds(10));
+        var lookup = new TaskLookup(taskRepository, properties, meterRegistry);
+        doReturn(List.of(task(1))).when(taskRepository).findAllById(any());
+
+        // when
+        var res = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> lookup.findById(1));
+
+        // then
+        assertEquals(Optional.of(task(1)), res);
+    }
+
+    @Test
+    void findById_SameIdWhileLookupInFlight_ShareOneQuery() throws Exception {
+        // given
+        properties.setWindow(Duration.ofSeconds(1));
+        var lookup = new TaskLookup(taskRepository, properties, meterRegistry);
+        var release = blockLookupOf(9);
+        var blocked = executor.submit(() -> lookup.findById(9));
+        awaitLoading(1);
+
+        // when
+        var first = executor.submit(() -> lookup.findById(1));
+        var second = executor.submit(() -> lookup.findById(1));
+        // Отпускаем первое чтение, только когда оба запроса id 1 уже ждут: иначе лидер может не застать
+        // идущее чтение, прочитать сразу, и второй запрос уйдёт отдельным чтением.
+        awaitCoalesced(1);
+        release.countDown();
+
+        // then
+        assertEquals(Optional.of(task(1)), first.get());
+        assertEquals(Optional.of(task(1)), second.get());
+        assertEquals(Optional.of(task(9)), blocked.get());
+        verify(taskRepository, times(2)).findAllById(any());
+        assertEquals(1, meterRegistry.get("task.lookup.coalesced").counter().count());
+        assertEquals(1.5, meterRegistry.get("task.lookup.coalescing.ratio").gauge().value());
+    }
+
+    @Test
+    void findById_DifferentIdsFillBatch_ReadWithOneInQuery() throws Exception {
+        // given
+        properties.setWindow(Duration.ofSeconds(10));
+        properties.setMaxBatchSize(2);
+        var lookup = new TaskLookup(taskRepository, properties, meterRegistry);
+        var release = blockLookupOf(9);
+        var blocked = executor.submit(() -> lookup.findById(9));
+        awaitLoading(1);
+
+        // when
+        var first = executor.submit(() -> lookup.findById(1));
+        var second = executor.submit(() -> lookup.findById(2));
+
+        // then
+        assertEquals(Optional.of(task(1)), first.get());
+        assertEquals(Optional.of(task(2)), second.get());
+        release.countDown();
+        assertEquals(Optional.of(task(9)), blocked.get());
+        verify(taskRepository).findAllById(argThat(ids -> Set.copyOf((Collection<Long>) ids).equals(Set.of(1L, 2L))));
+        verify(taskRepository, never()).findArchivedByIds(any());
+        assertEquals(2, meterRegistry.get("task.lookup.batch.size").summary().max());
+    }
+
+    @Test
+    void findById_NotInTask_ReturnTaskFromArchive() {
+        // given
+        properties.setCoalescingEnabled(false);
+        var lookup = new TaskLookup(taskRepository, properties, meterRegistry);
+        doReturn(List.of()).when(taskRepository).findAllById(List.of(1L));
+        doReturn(List.of(task(1))).when(taskRepository).findArchivedByIds(List.of(1L));
+
+        // when
+        var res = lookup.findById(1);
+
+        // then
+        assertEquals(Optional.of(task(1)), res);
+    }
+
+    @Test
+    void findById_QueryFailed_ThrowException() {
+        // given
+        properties.setWindow(Duration.ZERO);
+        var lookup = new TaskLookup(taskRepository, properties, meterRegistry);
+        var error = new IllegalStateException("БД недоступна");
+        doThrow(error).when(taskRepository).findAllById(any());
+
+        // when
+        var e = assertThrows(IllegalStateException.class, () -> lookup.findById(1));
+
+        // then
+        assertEquals(error, e);
+    }
+
+    /**
+     * Чтение задачи blockedId не завершается, пока не будет отпущен возвращённый latch,
+     * остальные задачи читаются сразу.
+     */
+    private CountDownLatch blockLookupOf(long blockedId) {
+        var release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            if (ids.contains(blockedId)) {
+                release.await();
+            }
+            return ids.stream().map(TaskLookupTest::task).toList();
+        }).when(taskRepository).findAllById(any());
+        return release;
+    }
+
+    private void awaitLoading(int queries) throws InterruptedException {
+        while (meterRegistry.get("task.lookup.queries").counter().count() < queries) {
+            Thread.sleep(1);
+        }
+    }
+
+    private void awaitCoalesced(int requests) throws InterruptedException {
+        while (meterRegistry.get("task.lookup.coalesced").counter().count() < requests) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static Task task(long id) {
+        return Task.builder().id(id).title("Задача " + id).dueDate(LocalDateTime.of(2024, 4, 26, 10, 0)).build();
+    }
+}
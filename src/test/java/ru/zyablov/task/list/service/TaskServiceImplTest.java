@@ -1,32 +1,65 @@
 package ru.zyablov.task.list.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import ru.zyablov.task.list.dto.TaskCursor;
+import ru.zyablov.task.list.changes.TaskChangedEvent;
 import ru.zyablov.task.list.dto.TaskData;
+import ru.zyablov.task.list.dto.TaskFilter;
+import ru.zyablov.task.list.dto.TaskLookupResult;
+import ru.zyablov.task.list.dto.TaskPatch;
+import ru.zyablov.task.list.dto.TaskSearchCursor;
 import ru.zyablov.task.list.entity.Task;
+import ru.zyablov.task.list.exception.BatchTooLargeException;
+import ru.zyablov.task.list.exception.InvalidCursorException;
 import ru.zyablov.task.list.exception.NoSuchTaskException;
+import ru.zyablov.task.list.exception.TaskArchivedException;
+import ru.zyablov.task.list.exception.TaskVersionMismatchException;
+import ru.zyablov.task.list.repository.RankedTask;
 import ru.zyablov.task.list.repository.TaskRepository;
+import ru.zyablov.task.list.repository.TaskVersionView;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static ru.zyablov.task.list.utils.ConverterUtils.domainToApi;
 
 @ExtendWith(MockitoExtension.class)
 class TaskServiceImplTest {
 
     @Mock
     TaskRepository taskRepository;
+    @Mock
+    TaskLookup taskLookup;
+    @Mock
+    EntityManager entityManager;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+    @Spy
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
     @InjectMocks
     TaskServiceImpl taskService;
 
@@ -35,27 +68,28 @@ class TaskServiceImplTest {
         //given
         LocalDateTime now = LocalDateTime.now();
         var tasksData = List.of(
-                new TaskData(1L, "Задача 1", "Описание 1", now.minusHours(2), true),
-                new TaskData(2L, "Задача 2", "Описание 2", now.plusHours(24), true),
-                new TaskData(3L, "Задача 3", "Описание 3", LocalDateTime.MAX, false),
+                new TaskData(1L, "Задача 1", "Описание 1", now.minusHours(2), true, 0L, now),
+                new TaskData(2L, "Задача 2", "Описание 2", now.plusHours(24), true, 0L, now),
+                new TaskData(3L, "Задача 3", "Описание 3", LocalDateTime.MAX, false, 0L, now),
                 new TaskData()
         );
 
         var tasks = List.of(
-                new Task(1L, now, now, "Задача 1", "Описание 1", now.minusHours(2), true),
-                new Task(2L, now, now, "Задача 2", "Описание 2", now.plusHours(24), true),
-                new Task(3L, now, now, "Задача 3", "Описание 3", LocalDateTime.MAX, false),
-                new Task(0, null, null, null, null, null, false)
+                new Task(1L, now, now, "Задача 1", "Описание 1", now.minusHours(2), true, 0L),
+                new Task(2L, now, now, "Задача 2", "Описание 2", now.plusHours(24), true, 0L),
+                new Task(3L, now, now, "Задача 3", "Описание 3", LocalDateTime.MAX, false, 0L),
+                new Task(0, null, null, null, null, null, false, 0L)
         );
 
-        doReturn(tasks).when(taskRepository).findAll();
+        doReturn(tasks).when(taskRepository).findBy(any(Specification.class), any());
 
         // when
-        var res = taskService.findAll();
+        var res = taskService.findAll(new TaskFilter(), null, 10);
 
         // then
-        assertEquals(tasksData, res);
-        verify(taskRepository).findAll();
+        assertEquals(tasksData, res.getItems());
+        assertNull(res.getNextCursor());
+        verify(taskRepository).findBy(any(Specification.class), any());
         verifyNoMoreInteractions(taskRepository);
     }
 
@@ -64,14 +98,88 @@ class TaskServiceImplTest {
         //given
         var tasks = List.of();
 
-        doReturn(tasks).when(taskRepository).findAll();
+        doReturn(tasks).when(taskRepository).findBy(any(Specification.class), any());
+
+        // when
+        var res = taskService.findAll(new TaskFilter(), null, 10);
+
+        // then
+        assertEquals(tasks, res.getItems());
+        assertNull(res.getNextCursor());
+        verify(taskRepository).findBy(any(Specification.class), any());
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    void findAll_MoreTasksThanLimit_ReturnPageWithNextCursor() {
+        //given
+        LocalDateTime now = LocalDateTime.now();
+        var tasks = List.of(
+                new Task(1L, now, now, "Задача 1", "Описание 1", now.minusHours(2), true, 0L),
+                new Task(2L, now, now, "Задача 2", "Описание 2", now.plusHours(24), true, 0L),
+                new Task(3L, now, now, "Задача 3", "Описание 3", now.plusHours(48), false, 0L)
+        );
+        var tasksData = List.of(
+                new TaskData(1L, "Задача 1", "Описание 1", now.minusHours(2), true, 0L, now),
+                new TaskData(2L, "Задача 2", "Описание 2", now.plusHours(24), true, 0L, now)
+        );
+
+        doReturn(tasks).when(taskRepository).findBy(any(Specification.class), any());
+
+        // when
+        var res = taskService.findAll(new TaskFilter(), null, 2);
+
+        // then
+        assertEquals(tasksData, res.getItems());
+        assertEquals(new TaskCursor(now.plusHours(24), 2L), TaskCursor.decode(res.getNextCursor()));
+        verify(taskRepository).findBy(any(Specification.class), any());
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    void search_MoreTasksThanLimit_ReturnRankedPageWithNextCursor() {
+        //given
+        LocalDateTime now = LocalDateTime.now();
+        var cursor = new TaskSearchCursor(0.5f, 7L);
+        var found = List.of(
+                new RankedTask(new Task(3L, now, now, "Отчёт", "Квартальный отчёт", now, false, 0L), 0.4f),
+                new RankedTask(new Task(1L, now, now, "Отчёт", null, now, true, 0L), 0.2f),
+                new RankedTask(new Task(2L, now, now, "Задача", "Приложить отчёт", now, false, 0L), 0.1f)
+        );
+        var tasksData = List.of(
+                new TaskData(3L, "Отчёт", "Квартальный отчёт", now, false, 0L, now),
+                new TaskData(1L, "Отчёт", null, now, true, 0L, now)
+        );
+
+        doReturn(found).when(taskRepository).search("отчёт", cursor, 3);
+
+        // when
+        var res = taskService.search("отчёт", cursor.encode(), 2);
+
+        // then
+        assertEquals(tasksData, res.getItems());
+        assertEquals(new TaskSearchCursor(0.2f, 1L), TaskSearchCursor.decode(res.getNextCursor()));
+        verify(taskRepository).search("отчёт", cursor, 3);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    void search_QueryIsBlank_ReturnEmptyPage() {
+        // when
+        var res = taskService.search("  ", null, 10);
 
+        // then
+        assertEquals(List.of(), res.getItems());
+        assertNull(res.getNextCursor());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void findAll_CursorIsInvalid_ReturnInvalidCursorException() {
         // when
-        var res = taskService.findAll();
+        assertThrows(InvalidCursorException.class, () -> taskService.findAll(new TaskFilter(), "не курсор", 10));
 
         // then
-        assertEquals(tasks, res);
-        verify(taskRepository).findAll();
         verifyNoMoreInteractions(taskRepository);
     }
 
@@ -83,17 +191,18 @@ class TaskServiceImplTest {
         );
 
         var tasks = List.of(
-                new Task(0, null, null, null, null, null, false)
+                new Task(0, null, null, null, null, null, false, 0L)
         );
 
-        doReturn(tasks).when(taskRepository).findAll();
+        doReturn(tasks).when(taskRepository).findBy(any(Specification.class), any());
 
         // when
-        var res = taskService.findAll();
+        var res = taskService.findAll(new TaskFilter(), null, 10);
 
         // then
-        assertEquals(tasksData, res);
-        verify(taskRepository).findAll();
+        assertEquals(tasksData, res.getItems());
+        assertNull(res.getNextCursor());
+        verify(taskRepository).findBy(any(Specification.class), any());
         verifyNoMoreInteractions(taskRepository);
     }
 
@@ -104,14 +213,42 @@ class TaskServiceImplTest {
         tasks.add(null);
         var tasksData = List.of(new TaskData());
 
-        doReturn(tasks).when(taskRepository).findAll();
+        doReturn(tasks).when(taskRepository).findBy(any(Specification.class), any());
 
         // when
-        var res = taskService.findAll();
+        var res = taskService.findAll(new TaskFilter(), null, 10);
 
         // then
-        assertEquals(tasksData, res);
-        verify(taskRepository).findAll();
+        assertEquals(tasksData, res.getItems());
+        assertNull(res.getNextCursor());
+        verify(taskRepository).findBy(any(Specification.class), any());
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    void export_TasksExist_PassTasksToConsumer() {
+        //given
+        LocalDateTime now = LocalDateTime.now();
+        var tasks = List.of(
+                new Task(1L, now, now, "Задача 1", "Описание 1", now.minusHours(2), true, 0L),
+                new Task(2L, now, now, "Задача 2", "Описание 2", now.plusHours(24), false, 0L)
+        );
+        var tasksData = List.of(
+                new TaskData(1L, "Задача 1", "Описание 1", now.minusHours(2), true, 0L, now),
+                new TaskData(2L, "Задача 2", "Описание 2", now.plusHours(24), false, 0L, now)
+        );
+        var exported = new ArrayList<TaskData>();
+
+        doReturn(tasks.stream()).when(taskRepository).findBy(any(Specification.class), any());
+
+        // when
+        taskService.export(new TaskFilter(), exported::add);
+
+        // then
+        assertEquals(tasksData, exported);
+        verify(entityManager).detach(tasks.get(0));
+        verify(entityManager).detach(tasks.get(1));
+        verify(taskRepository).findBy(any(Specification.class), any());
         verifyNoMoreInteractions(taskRepository);
     }
 
@@ -120,18 +257,18 @@ class TaskServiceImplTest {
         //given
         LocalDateTime now = LocalDateTime.now();
         var id = 1L;
-        var task = new Task(1L, now, now, "Задача 1", "Описание 1", now.minusHours(2), true);
-        var tasksData = new TaskData(1L, "Задача 1", "Описание 1", now.minusHours(2), true);
+        var task = new Task(1L, now, now, "Задача 1", "Описание 1", now.minusHours(2), true, 0L);
+        var tasksData = new TaskData(1L, "Задача 1", "Описание 1", now.minusHours(2), true, 0L, now);
 
-        doReturn(Optional.of(task)).when(taskRepository).findById(id);
+        doReturn(Optional.of(task)).when(taskLookup).findById(id);
 
         // when
         var res = taskService.findById(id);
 
         // then
         assertEquals(tasksData, res);
-        verify(taskRepository).findById(id);
-        verifyNoMoreInteractions(taskRepository);
+        verify(taskLookup).findById(id);
+        verifyNoInteractions(taskRepository);
     }
 
     @Test
@@ -140,15 +277,46 @@ class TaskServiceImplTest {
         var id = 1L;
         var message = "Не найден задача с id = " + id;
 
-        doReturn(Optional.empty()).when(taskRepository).findById(id);
+        doReturn(Optional.empty()).when(taskLookup).findById(id);
 
         // when
         var e = assertThrows(NoSuchTaskException.class, () -> taskService.findById(id));
 
         // then
         assertEquals(message, e.getMessage());
-        verify(taskRepository).findById(id);
-        verifyNoMoreInteractions(taskRepository);
+        verify(taskLookup).findById(id);
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void findAllById_SomeTasksMissing_ReturnFoundInRequestOrderAndMissing() {
+        //given
+        LocalDateTime now = LocalDateTime.now();
+        var task1 = new Task(1L, now, now, "Задача 1", "Описание 1", now, true, 0L);
+        var task3 = new Task(3L, now, now, "Задача 3", "Описание 3", now, false, 0L);
+
+        doReturn(Map.of(1L, task1, 3L, task3)).when(taskLookup).load(List.of(3L, 2L, 1L));
+
+        // when
+        var res = taskService.findAllById(List.of(3L, 2L, 3L, 1L));
+
+        // then
+        assertEquals(TaskLookupResult.builder()
+                .items(List.of(domainToApi(task3), domainToApi(task1)))
+                .missing(List.of(2L))
+                .build(), res);
+        verify(taskLookup).load(List.of(3L, 2L, 1L));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void findAllById_TooManyIds_ReturnBatchTooLargeException() {
+        // when
+        assertThrows(BatchTooLargeException.class,
+                () -> taskService.findAllById(Collections.nCopies(TaskServiceImpl.MAX_PAGE_SIZE + 1, 1L)));
+
+        // then
+        verifyNoInteractions(taskLookup);
     }
 
     @Test
@@ -156,73 +324,76 @@ class TaskServiceImplTest {
         //given
         var id = 1L;
         var task = new Task();
-        var tasksData = new TaskData(0, null, null, null, false);
+        var tasksData = new TaskData(0, null, null, null, false, 0L, null);
 
-        doReturn(Optional.of(task)).when(taskRepository).findById(id);
+        doReturn(Optional.of(task)).when(taskLookup).findById(id);
 
         // when
         var res = taskService.findById(id);
 
         // then
         assertEquals(tasksData, res);
-        verify(taskRepository).findById(id);
-        verifyNoMoreInteractions(taskRepository);
+        verify(taskLookup).findById(id);
+        verifyNoInteractions(taskRepository);
     }
 
     @Test
     void create_TaskIsValid_ReturnCreatedTask() {
         //given
         LocalDateTime now = LocalDateTime.now();
-        var task = new Task(0L, null, null, "Задача 1", "Описание 1", now.minusHours(2), true);
-        var taskMock = new Task(1L, now, now, "Задача 1", "Описание 1", now.minusHours(2), true);
-        var tasksData = new TaskData(1L, "Задача 1", "Описание 1", now.minusHours(2), true);
-        doReturn(taskMock).when(taskRepository).save(task);
+        var task = new Task(0L, null, null, "Задача 1", "Описание 1", now.minusHours(2), true, 0L);
+        var taskMock = new Task(1L, now, null, "Задача 1", "Описание 1", now.minusHours(2), true, 0L);
+        var tasksData = new TaskData(1L, "Задача 1", "Описание 1", now.minusHours(2), true, 0L, null);
+        var lastUpd = now.plusSeconds(1);
+        doReturn(taskMock).when(taskRepository).saveAndFlush(task);
+        doReturn(List.of(written(1L, 0L, lastUpd))).when(taskRepository).findVersions(List.of(1L));
 
         // when
         var res = taskService.create(tasksData);
 
         // then
-        assertEquals(tasksData, res);
-        verify(taskRepository).save(task);
+        var created = new TaskData(1L, "Задача 1", "Описание 1", now.minusHours(2), true, 0L, lastUpd);
+        assertEquals(created, res);
+        verify(taskRepository).saveAndFlush(task);
+        verify(taskRepository).findVersions(List.of(1L));
         verifyNoMoreInteractions(taskRepository);
+        verify(eventPublisher).publishEvent(TaskChangedEvent.created(created));
     }
 
     @Test
     void create_TaskIsInvalid_ReturnEmptyTask() {
         //given
-        var task = new Task(0, null, null, null, null, null, false);
-        var tasksData = new TaskData(0, null, null, null, false);
-        doReturn(task).when(taskRepository).save(task);
+        var task = new Task(0, null, null, null, null, null, false, 0L);
+        var tasksData = new TaskData(0, null, null, null, false, 0L, null);
+        doReturn(task).when(taskRepository).saveAndFlush(task);
 
         // when
         var res = taskService.create(tasksData);
 
         // then
         assertEquals(tasksData, res);
-        verify(taskRepository).save(task);
+        verify(taskRepository).saveAndFlush(task);
+        verify(taskRepository).findVersions(List.of(0L));
         verifyNoMoreInteractions(taskRepository);
     }
 
     @Test
-    void update_TaskExist_ReturnUpdatedTask() throws NoSuchTaskException {
+    void update_TaskExist_ReturnUpdatedTask() throws NoSuchTaskException, TaskVersionMismatchException {
         // given
         LocalDateTime now = LocalDateTime.now();
         var id = 1L;
-        var task = new Task(1L, null, null, "Задача 1", "Описание 1", now.minusHours(2), true);
-        var taskMock = new Task(1L, now, now, "Задача 1", "Описание 1", now.minusHours(2), true);
-        var tasksData = new TaskData(1L, "Задача 1", "Описание 1", now.minusHours(2), true);
+        var tasksData = new TaskData(1L, "Задача 1", "Описание 1", now.minusHours(2), true, 0L, null);
 
-        doReturn(taskMock).when(taskRepository).save(task);
-        doReturn(Optional.of(taskMock)).when(taskRepository).findById(id);
+        doReturn(Optional.of(written(id, 1L, now))).when(taskRepository).update(id, "Задача 1", "Описание 1", now.minusHours(2), true);
 
         //when
-        var res = taskService.update(id, tasksData);
+        var res = taskService.update(id, tasksData, null);
 
         //then
-        assertEquals(tasksData, res);
-        verify(taskRepository).save(task);
-        verify(taskRepository).findById(id);
+        assertEquals(new TaskData(1L, "Задача 1", "Описание 1", now.minusHours(2), true, 1L, now), res);
+        verify(taskRepository).update(id, "Задача 1", "Описание 1", now.minusHours(2), true);
         verifyNoMoreInteractions(taskRepository);
+        verify(eventPublisher).publishEvent(TaskChangedEvent.updated(res));
     }
 
     @Test
@@ -231,29 +402,202 @@ class TaskServiceImplTest {
         LocalDateTime now = LocalDateTime.now();
         var id = 1L;
         var message = "Не найден задача с id = " + id;
-        var tasksData = new TaskData(1L, "Задача 1", "Описание 1", now.minusHours(2), true);
+        var tasksData = new TaskData(1L, "Задача 1", "Описание 1", now.minusHours(2), true, 0L, null);
 
-        doReturn(Optional.empty()).when(taskRepository).findById(id);
+        doReturn(Optional.empty()).when(taskRepository).update(id, "Задача 1", "Описание 1", now.minusHours(2), true);
 
         //when
-        var e = assertThrows(NoSuchTaskException.class, () -> taskService.update(id, tasksData));
+        var e = assertThrows(NoSuchTaskException.class, () -> taskService.update(id, tasksData, null));
 
         //then
         assertEquals(message, e.getMessage());
+        verify(taskRepository).update(id, "Задача 1", "Описание 1", now.minusHours(2), true);
+        verify(taskRepository).existsArchivedById(id);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    void update_TaskArchived_ReturnTaskArchivedException() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        var id = 1L;
+        var tasksData = new TaskData(1L, "Задача 1", "Описание 1", now.minusHours(2), true, 0L, null);
+
+        doReturn(Optional.empty()).when(taskRepository).updateIfVersion(id, 0L, "Задача 1", "Описание 1", now.minusHours(2), true);
+        doReturn(true).when(taskRepository).existsArchivedById(id);
+
+        //when
+        var e = assertThrows(TaskArchivedException.class, () -> taskService.update(id, tasksData, 0L));
+
+        //then
+        assertEquals("Задача с id = 1 перенесена в архив и доступна только для чтения и удаления", e.getMessage());
+        verify(taskRepository).existsById(id);
+        verify(taskRepository).existsArchivedById(id);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void update_VersionIsStale_ReturnTaskVersionMismatchException() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        var id = 1L;
+        var tasksData = new TaskData(1L, "Задача 1", "Описание 1", now.minusHours(2), true, 0L, null);
+
+        doReturn(Optional.empty()).when(taskRepository).updateIfVersion(id, 2L, "Задача 1", "Описание 1", now.minusHours(2), true);
+        doReturn(true).when(taskRepository).existsById(id);
+
+        //when
+        var e = assertThrows(TaskVersionMismatchException.class, () -> taskService.update(id, tasksData, 2L));
+
+        //then
+        assertEquals("Задача с id = 1 была изменена", e.getMessage());
+        verify(taskRepository).updateIfVersion(id, 2L, "Задача 1", "Описание 1", now.minusHours(2), true);
+        verify(taskRepository).existsById(id);
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    void update_TaskIsInvalid_ReturnConstraintViolationException() {
+        // given
+        var tasksData = new TaskData(1L, "З", "Описание 1", null, true, 0L, null);
+
+        //when
+        var e = assertThrows(ConstraintViolationException.class, () -> taskService.update(1L, tasksData, null));
+
+        //then
+        assertEquals(2, e.getConstraintViolations().size());
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    void patch_TaskExist_ChangeOnlyPassedFields() throws NoSuchTaskException, TaskVersionMismatchException {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        var id = 1L;
+        var task = new Task(1L, now, now, "Задача 1", "Описание 1", now.minusHours(2), false, 0L);
+        var patch = new TaskPatch();
+        patch.setCompleted(true);
+        patch.setDescription(null);
+
+        doReturn(Optional.of(task)).when(taskRepository).findById(id);
+        doReturn(List.of(written(id, 1L, now.plusSeconds(1)))).when(taskRepository).findVersions(List.of(id));
+
+        //when
+        var res = taskService.patch(id, patch, null);
+
+        //then
+        assertEquals(new TaskData(1L, "Задача 1", null, now.minusHours(2), true, 0L, now.plusSeconds(1)), res);
+        verify(taskRepository).findById(id);
+        verify(taskRepository).flush();
+        verify(taskRepository).findVersions(List.of(id));
+        verifyNoMoreInteractions(taskRepository);
+    }
+
+    @Test
+    void patch_TaskNotExist_ReturnNoSuchTaskException() {
+        // given
+        var id = 1L;
+        doReturn(Optional.empty()).when(taskRepository).findById(id);
+
+        //when
+        var e = assertThrows(NoSuchTaskException.class, () -> taskService.patch(id, new TaskPatch(), null));
+
+        //then
+        assertEquals("Не найден задача с id = " + id, e.getMessage());
         verify(taskRepository).findById(id);
+        verify(taskRepository).existsArchivedById(id);
         verifyNoMoreInteractions(taskRepository);
     }
 
     @Test
-    void delete_ReturnVoid() {
+    void patch_CompletedIsNull_ReturnConstraintViolationException() {
+        // given
+        var patch = new TaskPatch();
+        patch.setCompleted(null);
+
+        //when
+        var e = assertThrows(ConstraintViolationException.class, () -> taskService.patch(1L, patch, null));
+
+        //then
+        assertEquals("completed не должно равняться null", e.getConstraintViolations().iterator().next().getMessage());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void patch_TaskArchived_ReturnTaskArchivedException() {
+        // given
+        var id = 1L;
+        doReturn(Optional.empty()).when(taskRepository).findById(id);
+        doReturn(true).when(taskRepository).existsArchivedById(id);
+
+        //when
+        assertThrows(TaskArchivedException.class, () -> taskService.patch(id, new TaskPatch(), null));
+
+        //then
+        verify(taskRepository, never()).flush();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void delete_TaskExist_PublishDeletedEvent() {
+        //given
+        var id = 1L;
+        doReturn(1).when(taskRepository).removeById(id);
+
+        // when
+        taskService.delete(id);
+
+        // then
+        verify(taskRepository).removeById(id);
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(id));
+    }
+
+    @Test
+    void delete_TaskArchived_PublishDeletedEvent() {
         //given
         var id = 1L;
-        doNothing().when(taskRepository).deleteById(id);
+        doReturn(0).when(taskRepository).removeById(id);
+        doReturn(1).when(taskRepository).removeArchivedById(id);
 
         // when
         taskService.delete(id);
 
         // then
-        verify(taskRepository).deleteById(id);
+        verify(taskRepository).removeById(id);
+        verify(taskRepository).removeArchivedById(id);
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(id));
+    }
+
+    @Test
+    void delete_TaskNotExist_NoEvent() {
+        //given
+        var id = 1L;
+        doReturn(0).when(taskRepository).removeById(id);
+
+        // when
+        taskService.delete(id);
+
+        // then
+        verify(taskRepository).removeById(id);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static TaskVersionView written(long id, long version, LocalDateTime lastUpd) {
+        return new TaskVersionView() {
+            @Override
+            public long getId() {
+                return id;
+            }
+
+            @Override
+            public long getVersion() {
+                return version;
+            }
+
+            @Override
+            public LocalDateTime getLastUpd() {
+                return lastUpd;
+            }
+        };
     }
-}
\ No newline at end of file
+}
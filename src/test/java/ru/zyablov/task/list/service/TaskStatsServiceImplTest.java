@@ -0,0 +1,62 @@
+package ru.zyablov.task.list.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.zyablov.task.list.dto.TaskStats;
+import ru.zyablov.task.list.repository.TaskRepository;
+import ru.zyablov.task.list.repository.TaskStatsView;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TaskStatsServiceImplTest {
+
+    @Mock
+    TaskRepository taskRepository;
+    @Mock
+    TaskStatsView view;
+    @InjectMocks
+    TaskStatsServiceImpl taskStatsService;
+
+    @Test
+    void getStats_CountersExist_ReturnStatsWithOpenCount() {
+        // given
+        var today = LocalDate.now();
+        doReturn(10L).when(view).getTotal();
+        doReturn(4L).when(view).getCompleted();
+        doReturn(1L).when(view).getOverdue();
+        doReturn(2L).when(view).getDueToday();
+        doReturn(0L).when(view).getDueNextWeek();
+        doReturn(3L).when(view).getDueLater();
+        doReturn(view).when(taskRepository).findStats(eq(today), eq(today.plusDays(7)), any(LocalDateTime.class));
+
+        // when
+        var res = taskStatsService.getStats();
+
+        // then
+        assertEquals(new TaskStats(10, 4, 6, 1, 2, 0, 3), res);
+    }
+
+    @Test
+    void compact_NoDeltas_DoNotDeleteEmptyStats() {
+        // given
+        doReturn(0).when(taskRepository).foldStatsDeltas();
+
+        // when
+        taskStatsService.compact();
+
+        // then
+        verify(taskRepository, never()).deleteEmptyStats();
+    }
+}
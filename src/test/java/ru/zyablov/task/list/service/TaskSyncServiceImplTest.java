@@ -0,0 +1,133 @@
+package ru.zyablov.task.list.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.zyablov.task.list.config.TaskSyncProperties;
+import ru.zyablov.task.list.dto.SyncToken;
+import ru.zyablov.task.list.entity.Task;
+import ru.zyablov.task.list.entity.TaskTombstone;
+import ru.zyablov.task.list.exception.ChangesExpiredException;
+import ru.zyablov.task.list.exception.InvalidCursorException;
+import ru.zyablov.task.list.repository.TaskRepository;
+import ru.zyablov.task.list.repository.TaskTombstoneRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class TaskSyncServiceImplTest {
+
+    @Mock
+    TaskRepository taskRepository;
+    @Mock
+    TaskTombstoneRepository tombstoneRepository;
+
+    TaskSyncProperties properties = new TaskSyncProperties();
+    TaskSyncServiceImpl taskSyncService;
+
+    @BeforeEach
+    void setUp() {
+        properties.setOverlap(Duration.ofSeconds(10));
+        taskSyncService = new TaskSyncServiceImpl(taskRepository, tombstoneRepository, properties);
+    }
+
+    @Test
+    void sync_MoreChangesThanLimit_ReturnPageAndExactPosition() {
+        // given
+        var now = LocalDateTime.now();
+        var tasks = List.of(
+                new Task(1L, now, now.minusMinutes(3), "Задача 1", null, now, false, 0L),
+                new Task(2L, now, now.minusMinutes(2), "Задача 2", null, now, false, 0L),
+                new Task(3L, now, now.minusMinutes(1), "Задача 3", null, now, false, 0L));
+        doReturn(tasks).when(taskRepository).findChangedAfter(TaskSyncServiceImpl.BEGINNING, 0, 3);
+        doReturn(List.of()).when(tombstoneRepository).findAfter(any(), anyLong(), anyInt());
+
+        // when
+        var res = taskSyncService.sync(null, 2);
+
+        // then
+        assertTrue(res.isHasMore());
+        assertEquals(List.of(1L, 2L), res.getChanged().stream().map(t -> t.getId()).toList());
+        var token = SyncToken.decode(res.getToken());
+        assertEquals(now.minusMinutes(2), token.getUpdatedAt());
+        assertEquals(2L, token.getUpdatedId());
+    }
+
+    @Test
+    void sync_ChangesExhaustedWithinOverlap_RewindPositionToOverlapBoundary() {
+        // given
+        var now = LocalDateTime.now();
+        var since = new SyncToken(now.minusHours(1), 5, now.minusHours(1), 7);
+        doReturn(List.of(new Task(6L, now, now.minusSeconds(1), "Задача 6", null, now, false, 0L)))
+                .when(taskRepository).findChangedAfter(since.getUpdatedAt(), 5, 501);
+        doReturn(List.of(new TaskTombstone(8L, now.minusSeconds(2))))
+                .when(tombstoneRepository).findAfter(since.getDeletedAt(), 7, 501);
+
+        // when
+        var res = taskSyncService.sync(since.encode(), 500);
+
+        // then
+        assertFalse(res.isHasMore());
+        assertEquals(List.of(8L), res.getDeleted());
+        var token = SyncToken.decode(res.getToken());
+        var boundary = now.minusSeconds(10);
+        assertFalse(token.getUpdatedAt().isBefore(boundary));
+        assertTrue(token.getUpdatedAt().isBefore(now.minusSeconds(1)));
+        assertEquals(0L, token.getUpdatedId());
+        assertFalse(token.getDeletedAt().isBefore(boundary));
+        assertTrue(token.getDeletedAt().isBefore(now.minusSeconds(2)));
+    }
+
+    @Test
+    void sync_NoWritesBetweenPolls_ReturnEmptySecondPage() {
+        // given
+        var now = LocalDateTime.now();
+        var since = new SyncToken(now.minusHours(1), 5, now.minusHours(1), 7);
+        doReturn(List.of(new Task(6L, now, now.minusMinutes(1), "Задача 6", null, now, false, 0L)))
+                .when(taskRepository).findChangedAfter(since.getUpdatedAt(), 5, 501);
+        doReturn(List.of(new TaskTombstone(8L, now.minusMinutes(2))))
+                .when(tombstoneRepository).findAfter(since.getDeletedAt(), 7, 501);
+        doReturn(List.of()).when(taskRepository).findChangedAfter(now.minusMinutes(1), 6, 501);
+        doReturn(List.of()).when(tombstoneRepository).findAfter(now.minusMinutes(2), 8, 501);
+
+        // when
+        var first = taskSyncService.sync(since.encode(), 500);
+        var second = taskSyncService.sync(first.getToken(), 500);
+
+        // then
+        assertEquals(List.of(6L), first.getChanged().stream().map(t -> t.getId()).toList());
+        assertEquals(List.of(8L), first.getDeleted());
+        assertTrue(second.getChanged().isEmpty());
+        assertTrue(second.getDeleted().isEmpty());
+        assertFalse(second.isHasMore());
+        var token = SyncToken.decode(second.getToken());
+        assertEquals(now.minusMinutes(1), token.getUpdatedAt());
+        assertEquals(6L, token.getUpdatedId());
+    }
+
+    @Test
+    void sync_TokenOlderThanRetention_ReturnChangesExpiredException() {
+        // given
+        var old = LocalDateTime.now().minus(properties.getTombstoneRetention()).minusDays(1);
+        var since = new SyncToken(old, 1, old, 1).encode();
+
+        // when, then
+        assertThrows(ChangesExpiredException.class, () -> taskSyncService.sync(since, 100));
+        assertThrows(InvalidCursorException.class, () -> taskSyncService.sync("не токен", 100));
+        verifyNoInteractions(taskRepository, tombstoneRepository);
+    }
+}